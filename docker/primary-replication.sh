@@ -0,0 +1,7 @@
+#!/bin/sh
+# Lets the replica service stream WAL from this database.
+set -e
+psql -v ON_ERROR_STOP=1 --username "$POSTGRES_USER" --dbname "$POSTGRES_DB" <<SQL
+CREATE ROLE replicator WITH REPLICATION LOGIN PASSWORD '$POSTGRES_PASSWORD';
+SQL
+echo "host replication replicator all md5" >> "$PGDATA/pg_hba.conf"
@@ -0,0 +1,32 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Replaces the identity column of {@code movie} with a sequence that Hibernate's pooled optimizer
+ * reserves ids from in blocks, so inserts can be batched. The increment must match the
+ * {@code allocationSize} of {@code Movie.id}.
+ */
+public class V4__movie_id_sequence extends BaseJavaMigration {
+    private static final int ALLOCATION_SIZE = 50;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        try (Statement statement = context.getConnection().createStatement()) {
+            long maxId;
+            try (ResultSet result = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM movie")) {
+                result.next();
+                maxId = result.getLong(1);
+            }
+            // The pooled optimizer treats each sequence value as the upper end of a block, so the
+            // first value has to leave a whole block above the current maximum.
+            statement.execute("CREATE SEQUENCE movie_id_seq START WITH " + (maxId + ALLOCATION_SIZE)
+                    + " INCREMENT BY " + ALLOCATION_SIZE);
+            statement.execute("ALTER TABLE movie ALTER COLUMN id DROP IDENTITY");
+        }
+    }
+}
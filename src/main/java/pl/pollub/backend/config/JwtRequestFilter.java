@@ -1,4 +1,6 @@
 package pl.pollub.backend.config;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import pl.pollub.backend.exception.JwtAuthenticationException;
 import pl.pollub.backend.service.auth.JwtUserDetailsService;
 import java.io.IOException;
@@ -18,12 +20,19 @@ import io.jsonwebtoken.ExpiredJwtException;
 public class JwtRequestFilter extends OncePerRequestFilter {
     private final JwtUserDetailsService jwtUserDetailsService;
     private final JwtTokenUtil jwtTokenUtil;
+    private final Timer parseTimer;
+    private final Timer validateTimer;
+    private final Timer userLookupTimer;
     private static final String BEARER_PREFIX = "Bearer ";
     private static final String AUTHORIZATION_HEADER = "Authorization";
 
-    public JwtRequestFilter(JwtUserDetailsService jwtUserDetailsService, JwtTokenUtil jwtTokenUtil) {
+    public JwtRequestFilter(JwtUserDetailsService jwtUserDetailsService, JwtTokenUtil jwtTokenUtil,
+                            MeterRegistry meterRegistry) {
         this.jwtUserDetailsService = jwtUserDetailsService;
         this.jwtTokenUtil = jwtTokenUtil;
+        this.parseTimer = timer(meterRegistry, "auth.jwt", "parse");
+        this.validateTimer = timer(meterRegistry, "auth.jwt", "validate");
+        this.userLookupTimer = timer(meterRegistry, "auth.user.lookup", null);
     }
 
     @Override
@@ -36,28 +45,25 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         }
 
         final String requestTokenHeader = request.getHeader(AUTHORIZATION_HEADER);
-        String jwtToken = null;
-        String username = null;
-
-        if (isTokenPresent(requestTokenHeader)) {
-            jwtToken = extractToken(requestTokenHeader);
-
-            try {
-                username = jwtTokenUtil.getUsernameFromToken(jwtToken);
-            } catch (IllegalArgumentException e) {
-                throw new JwtAuthenticationException("Unable to get JWT Token", e);
-            } catch (ExpiredJwtException e) {
-                throw new JwtAuthenticationException("JWT Token has expired", e);
-            }
-        } else {
+        if (!isTokenPresent(requestTokenHeader)) {
             throw new JwtAuthenticationException("JWT Token does not begin with Bearer String");
         }
 
+        final String jwtToken = extractToken(requestTokenHeader);
+        final String username;
+        try {
+            username = parseTimer.record(() -> jwtTokenUtil.getUsernameFromToken(jwtToken));
+        } catch (IllegalArgumentException e) {
+            throw new JwtAuthenticationException("Unable to get JWT Token", e);
+        } catch (ExpiredJwtException e) {
+            throw new JwtAuthenticationException("JWT Token has expired", e);
+        }
+
         // Validate the token and set the security context
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = jwtUserDetailsService.loadUserByUsername(username);
+            UserDetails userDetails = userLookupTimer.record(() -> jwtUserDetailsService.loadUserByUsername(username));
 
-            if (jwtTokenUtil.validateToken(jwtToken, userDetails)) {
+            if (Boolean.TRUE.equals(validateTimer.record(() -> jwtTokenUtil.validateToken(jwtToken, userDetails)))) {
                 setAuthentication(userDetails, request);
             }
         }
@@ -65,6 +71,14 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         chain.doFilter(request, response);
     }
 
+    private static Timer timer(MeterRegistry meterRegistry, String name, String step) {
+        Timer.Builder builder = Timer.builder(name).publishPercentileHistogram();
+        if (step != null) {
+            builder.tag("step", step);
+        }
+        return builder.register(meterRegistry);
+    }
+
     private boolean isTokenPresent(String tokenHeader) {
         return tokenHeader != null && tokenHeader.startsWith(BEARER_PREFIX);
     }
@@ -0,0 +1,44 @@
+package pl.pollub.backend.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+/**
+ * R2DBC access for the reactive read API. The pool is kept private to this configuration rather
+ * than exposed as a {@code ConnectionFactory} bean: Boot backs off its JDBC {@code DataSource} as
+ * soon as one exists, and JPA, Flyway and the servlet API still need it.
+ */
+@Configuration
+public class ReactiveDatabaseConfig {
+    private ConnectionPool connectionPool;
+
+    @Bean
+    public DatabaseClient reactiveDatabaseClient(@Value("${movies.reactive.r2dbc.url}") String url,
+                                                 @Value("${movies.reactive.r2dbc.username}") String username,
+                                                 @Value("${movies.reactive.r2dbc.password}") String password,
+                                                 @Value("${movies.reactive.r2dbc.pool.max-size:10}") int maxSize) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .initialSize(0)
+                .maxSize(maxSize)
+                .build());
+        return DatabaseClient.create(connectionPool);
+    }
+
+    @PreDestroy
+    public void closeConnectionPool() {
+        if (connectionPool != null) {
+            connectionPool.dispose();
+        }
+    }
+}
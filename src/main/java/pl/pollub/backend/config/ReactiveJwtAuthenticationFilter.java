@@ -0,0 +1,57 @@
+package pl.pollub.backend.config;
+
+import io.jsonwebtoken.JwtException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.HandlerFilterFunction;
+import org.springframework.web.reactive.function.server.HandlerFunction;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import pl.pollub.backend.exception.DatabaseOperationException;
+import pl.pollub.backend.repository.auth.ReactiveUserRepository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Bearer token check for the reactive endpoints. Like {@link JwtRequestFilter} it accepts a token
+ * signed with our secret and not yet expired only while its user still exists; the lookup runs over
+ * R2DBC, so no request blocks on it.
+ */
+@Component
+public class ReactiveJwtAuthenticationFilter implements HandlerFilterFunction<ServerResponse, ServerResponse> {
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtTokenUtil jwtTokenUtil;
+    private final ReactiveUserRepository userRepository;
+
+    public ReactiveJwtAuthenticationFilter(JwtTokenUtil jwtTokenUtil, ReactiveUserRepository userRepository) {
+        this.jwtTokenUtil = jwtTokenUtil;
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    public Mono<ServerResponse> filter(ServerRequest request, HandlerFunction<ServerResponse> next) {
+        String header = request.headers().firstHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.startsWith(BEARER_PREFIX)) {
+            return unauthorized();
+        }
+        String username;
+        try {
+            username = jwtTokenUtil.getUsernameFromToken(header.substring(BEARER_PREFIX.length()));
+        } catch (JwtException | IllegalArgumentException ex) {
+            return unauthorized();
+        }
+        if (username == null) {
+            return unauthorized();
+        }
+        return userRepository.existsByUsername(username)
+                .onErrorMap(DataAccessException.class,
+                        ex -> new DatabaseOperationException("Failed to authenticate user", ex))
+                .flatMap(exists -> exists ? next.handle(request) : unauthorized());
+    }
+
+    private static Mono<ServerResponse> unauthorized() {
+        return ServerResponse.status(HttpStatus.UNAUTHORIZED).bodyValue("Unauthorized");
+    }
+}
@@ -0,0 +1,88 @@
+package pl.pollub.backend.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import pl.pollub.backend.controller.movie.ReactiveMovieHandler;
+import pl.pollub.backend.exception.DatabaseOperationException;
+import pl.pollub.backend.exception.InvalidDataException;
+import pl.pollub.backend.exception.MovieNotFoundException;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * Runs the reactive movie endpoints on their own Reactor Netty server next to Tomcat, on
+ * {@code movies.reactive.port}. A connection costs no thread here: a few event-loop threads serve
+ * every client, and responses are written as fast as each client reads them. The server is opt-in:
+ * it only starts with {@code movies.reactive.enabled=true}, so no deployment opens the extra port
+ * unless asked to.
+ */
+@Component
+@ConditionalOnProperty(name = "movies.reactive.enabled", havingValue = "true")
+public class ReactiveMovieServer implements SmartLifecycle {
+    private final RouterFunction<ServerResponse> routes;
+    private final HandlerStrategies strategies;
+    private final int port;
+    private volatile DisposableServer server;
+
+    public ReactiveMovieServer(ReactiveMovieHandler movieHandler,
+                               ReactiveJwtAuthenticationFilter authenticationFilter,
+                               ObjectMapper objectMapper,
+                               @Value("${movies.reactive.port:8081}") int port) {
+        this.routes = RouterFunctions.route()
+                .path("/api/movies", builder -> builder
+                        .GET("", movieHandler::getAllMovies)
+                        .GET("/filter", movieHandler::filterMovies)
+                        .GET("/{id}", movieHandler::getMovieById))
+                .filter(authenticationFilter)
+                .onError(MovieNotFoundException.class,
+                        (ex, request) -> ServerResponse.status(HttpStatus.NOT_FOUND).bodyValue(ex.getMessage()))
+                .onError(InvalidDataException.class,
+                        (ex, request) -> ServerResponse.status(HttpStatus.BAD_REQUEST).bodyValue(ex.getMessage()))
+                .onError(DatabaseOperationException.class,
+                        (ex, request) -> ServerResponse.status(HttpStatus.INTERNAL_SERVER_ERROR).bodyValue(ex.getMessage()))
+                .build();
+        this.strategies = HandlerStrategies.builder()
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+                .build();
+        this.port = port;
+    }
+
+    public int getPort() {
+        return server == null ? -1 : server.port();
+    }
+
+    @Override
+    public void start() {
+        server = HttpServer.create()
+                .port(port)
+                .handle(new ReactorHttpHandlerAdapter(RouterFunctions.toHttpHandler(routes, strategies)))
+                .bindNow();
+    }
+
+    @Override
+    public void stop() {
+        if (server != null) {
+            server.disposeNow();
+            server = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+}
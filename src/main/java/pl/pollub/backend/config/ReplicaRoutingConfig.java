@@ -0,0 +1,128 @@
+package pl.pollub.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.StringUtils;
+import pl.pollub.backend.util.datasource.ReadYourWritesTracker;
+import pl.pollub.backend.util.datasource.ReplicaDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits database traffic between the primary and streaming replicas once
+ * {@code movies.datasource.replica.urls} lists at least one replica. Read-only transactions run on a
+ * replica; everything else, including Flyway and Hibernate's schema validation, uses the primary.
+ * Every read-write transaction a client commits on the primary keeps that client's reads on the
+ * primary for the read-your-writes window, which should cover the usual replication lag. Replica
+ * pools wait at most {@code movies.datasource.replica.connection-timeout} for a connection, instead
+ * of the primary's timeout, before a read falls back to the primary.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnExpression("!'${movies.datasource.replica.urls:}'.isBlank()")
+public class ReplicaRoutingConfig {
+    private final List<HikariDataSource> pools = new ArrayList<>();
+    private HikariDataSource primaryPool;
+    private ReplicaDataSource replicaDataSource;
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(
+            @Value("${movies.datasource.replica.read-your-writes-window:PT5S}") Duration window) {
+        return new ReadYourWritesTracker(window);
+    }
+
+    @Bean
+    public ReplicaDataSource replicaDataSource(DataSourceProperties properties, Environment environment,
+                                               ReadYourWritesTracker readYourWrites, MeterRegistry meterRegistry,
+                                               @Value("${movies.datasource.replica.urls}") String urls,
+                                               @Value("${movies.datasource.replica.username:${spring.datasource.username}}") String username,
+                                               @Value("${movies.datasource.replica.password:${spring.datasource.password}}") String password,
+                                               @Value("${movies.datasource.replica.connection-timeout:PT1S}") Duration connectionTimeout) {
+        MicrometerMetricsTrackerFactory metrics = new MicrometerMetricsTrackerFactory(meterRegistry);
+        primaryPool = pool(properties, environment, metrics, properties.determineUrl(),
+                properties.determineUsername(), properties.determinePassword(), "primary");
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : StringUtils.commaDelimitedListToStringArray(urls)) {
+            HikariDataSource replica = pool(properties, environment, metrics, url.trim(), username, password,
+                    "replica-" + (replicas.size() + 1));
+            replica.setReadOnly(true);
+            replica.setConnectionTimeout(connectionTimeout.toMillis());
+            replica.setValidationTimeout(connectionTimeout.toMillis());
+            replicas.add(replica);
+        }
+        replicaDataSource = new ReplicaDataSource(primaryPool, replicas, readYourWrites, connectionTimeout);
+        Gauge.builder("movies.datasource.replicas.healthy", replicaDataSource, ReplicaDataSource::getHealthyReplicaCount)
+                .description("Replicas currently taking read-only transactions")
+                .register(meterRegistry);
+        return replicaDataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaDataSource replicaDataSource, ReadYourWritesTracker readYourWrites) {
+        DataSource primary = new DelegatingDataSource(primaryPool) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                readYourWrites.recordWriteOnCommit();
+                return super.getConnection();
+            }
+        };
+        LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(primary);
+        routing.setReadOnlyDataSource(replicaDataSource);
+        return routing;
+    }
+
+    @Scheduled(fixedDelayString = "${movies.datasource.replica.health-check-interval:PT5S}")
+    public void checkReplicaHealth() {
+        if (replicaDataSource == null) {
+            return;
+        }
+        int healthyBefore = replicaDataSource.getHealthyReplicaCount();
+        replicaDataSource.checkHealth();
+        int healthy = replicaDataSource.getHealthyReplicaCount();
+        if (healthy != healthyBefore) {
+            log.warn("{} of {} database replicas are healthy", healthy, replicaDataSource.getReplicaCount());
+        }
+    }
+
+    @PreDestroy
+    public void closePools() {
+        pools.forEach(HikariDataSource::close);
+    }
+
+    private HikariDataSource pool(DataSourceProperties properties, Environment environment,
+                                  MicrometerMetricsTrackerFactory metrics, String url, String username, String password, String name) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName("movies-" + name);
+        pool.setMetricsTrackerFactory(metrics);
+        pools.add(pool);
+        return pool;
+    }
+}
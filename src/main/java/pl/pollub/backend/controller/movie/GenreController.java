@@ -0,0 +1,25 @@
+package pl.pollub.backend.controller.movie;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import pl.pollub.backend.model.movie.Genre;
+import pl.pollub.backend.service.movie.IGenreReader;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/genres")
+public class GenreController {
+    private final IGenreReader genreReader;
+
+    public GenreController(IGenreReader genreReader) {
+        this.genreReader = genreReader;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<Genre>> getAllGenres() {
+        return ResponseEntity.ok(genreReader.getAllGenres());
+    }
+}
@@ -0,0 +1,23 @@
+package pl.pollub.backend.controller.movie;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import pl.pollub.backend.dto.movie.MovieAggregatesDto;
+import pl.pollub.backend.service.movie.IMovieAggregates;
+
+@RestController
+@RequestMapping("/api/movies/aggregates")
+public class MovieAggregateController {
+    private final IMovieAggregates movieAggregates;
+
+    public MovieAggregateController(IMovieAggregates movieAggregates) {
+        this.movieAggregates = movieAggregates;
+    }
+
+    @GetMapping
+    public ResponseEntity<MovieAggregatesDto> getAggregates() {
+        return ResponseEntity.ok(movieAggregates.getAggregates());
+    }
+}
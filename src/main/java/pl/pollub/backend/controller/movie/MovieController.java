@@ -1,33 +1,65 @@
 package pl.pollub.backend.controller.movie;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
+import pl.pollub.backend.dto.movie.MovieBatchResultDto;
+import pl.pollub.backend.dto.movie.MovieCacheStatsDto;
 import pl.pollub.backend.dto.movie.MovieDto;
 import pl.pollub.backend.exception.DatabaseOperationException;
 import pl.pollub.backend.exception.InvalidDataException;
+import pl.pollub.backend.exception.MovieVersionConflictException;
 import pl.pollub.backend.model.movie.Movie;
 import pl.pollub.backend.service.movie.IMovieFilter;
 import pl.pollub.backend.service.movie.IMovieReader;
 import pl.pollub.backend.service.movie.IMovieWriter;
+import pl.pollub.backend.util.catalog.CatalogVersion;
+import pl.pollub.backend.util.datasource.PrimaryReads;
+import pl.pollub.backend.util.filter.Filter;
 import pl.pollub.backend.util.filter.GenreFilter;
 import pl.pollub.backend.util.filter.YearFilter;
 
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @RestController
 @RequestMapping("/api/movies")
 public class MovieController {
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final String ORDER_BY_ID = "id";
+    private static final String ORDER_BY_RELEASE_DATE = "releaseDate";
+    /** {@code afterDate} of a cursor pointing into the movies without a release date. */
+    private static final String NO_RELEASE_DATE = "null";
+    private static final Pattern ENTITY_TAG = Pattern.compile("\\s*(W/)?\"([^\"]*)\"\\s*(?:,|$)");
+
     private final IMovieReader movieReader;
     private final IMovieWriter movieWriter;
     private final IMovieFilter movieFilter;
+    private final ObjectWriter movieJsonWriter;
 
-    public MovieController(IMovieReader movieReader, IMovieWriter movieWriter, IMovieFilter movieFilter) {
+    public MovieController(IMovieReader movieReader, IMovieWriter movieWriter, IMovieFilter movieFilter,
+                           ObjectMapper objectMapper) {
         this.movieReader = movieReader;
         this.movieWriter = movieWriter;
         this.movieFilter = movieFilter;
+        this.movieJsonWriter = objectMapper.writerFor(Movie.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
     }
 
     @PostMapping
@@ -36,56 +68,256 @@ public class MovieController {
         return ResponseEntity.ok(savedMovie);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<MovieBatchResultDto> saveMovies(@RequestBody List<MovieDto> movieDtos) {
+        if (movieDtos.isEmpty()) {
+            throw new InvalidDataException("Batch cannot be empty");
+        }
+        if (movieDtos.size() > MAX_BATCH_SIZE) {
+            throw new InvalidDataException("Batch cannot contain more than " + MAX_BATCH_SIZE + " movies");
+        }
+        return ResponseEntity.ok(movieWriter.saveMovies(movieDtos));
+    }
+
+    /**
+     * Without paging parameters returns every movie, as before paging existed. {@code limit},
+     * {@code after} or {@code afterDate} switch to keyset pages chained by a {@code Link: rel="next"}
+     * header. In release date order movies without a date come last, behind {@code afterDate=null}.
+     */
     @GetMapping
-    public ResponseEntity<List<Movie>> getAllMovies() {
-        List<Movie> movies = movieReader.getAllMovies();
-        return ResponseEntity.ok(movies);
+    public ResponseEntity<List<Movie>> getAllMovies(@RequestParam(required = false) String after,
+                                                    @RequestParam(required = false) String afterDate,
+                                                    @RequestParam(required = false) String limit,
+                                                    @RequestParam(required = false) String orderBy,
+                                                    WebRequest request) {
+        Long afterId = MovieRequestParams.parseCursor(after);
+        LocalDate afterReleaseDate = NO_RELEASE_DATE.equals(afterDate) ? null : MovieRequestParams.parseDate(afterDate);
+        int pageSize = MovieRequestParams.parsePageSize(limit);
+        if (ORDER_BY_RELEASE_DATE.equals(orderBy) && (afterId == null) != (afterDate == null)) {
+            throw new InvalidDataException("A releaseDate cursor needs both after and afterDate");
+        }
+        if (orderBy != null && !ORDER_BY_ID.equals(orderBy) && !ORDER_BY_RELEASE_DATE.equals(orderBy)) {
+            throw new InvalidDataException("Movies can only be ordered by id or releaseDate");
+        }
+        if (collectionNotModified(request)) {
+            return null;
+        }
+        if (after == null && afterDate == null && limit == null) {
+            List<Movie> movies = ORDER_BY_RELEASE_DATE.equals(orderBy)
+                    ? PrimaryReads.call(() -> movieReader.getMoviesByReleaseDateAfter(null, null, Integer.MAX_VALUE))
+                    : PrimaryReads.call(movieReader::getAllMovies);
+            return ResponseEntity.ok(movies);
+        }
+        if (orderBy == null || ORDER_BY_ID.equals(orderBy)) {
+            List<Movie> movies = PrimaryReads.call(() -> movieReader.getMoviesAfter(afterId, pageSize + 1));
+            return page(movies, pageSize, false);
+        }
+        List<Movie> movies = PrimaryReads.call(() ->
+                movieReader.getMoviesByReleaseDateAfter(afterReleaseDate, afterId, pageSize + 1));
+        return page(movies, pageSize, true);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllMovies(WebRequest request) {
+        if (collectionNotModified(request)) {
+            return null;
+        }
+        StreamingResponseBody body = outputStream -> PrimaryReads.run(() -> movieReader.streamAllMovies(movie -> {
+            try {
+                movieJsonWriter.writeValue(outputStream, movie);
+                outputStream.write('\n');
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Movie> getMovieById(@PathVariable Long id) {
+    public ResponseEntity<Movie> getMovieById(@PathVariable Long id, WebRequest request) {
+        if (movieNotModified(id, request)) {
+            return null;
+        }
         Movie movie = movieReader.getMovieById(id);
-        return ResponseEntity.ok(movie);
+        return ResponseEntity.ok()
+                .eTag(String.valueOf(movie.getVersion()))
+                .lastModified(movie.getUpdatedAt())
+                .body(movie);
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<MovieCacheStatsDto> getCacheStats() {
+        return ResponseEntity.ok(movieReader.getCacheStats());
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Movie> updateMovie(@PathVariable Long id, @RequestBody MovieDto movieDto) {
-        Movie updatedMovie = movieWriter.updateMovie(id, movieDto);
-        return ResponseEntity.ok(updatedMovie);
+    public ResponseEntity<Movie> updateMovie(@PathVariable Long id, @RequestBody MovieDto movieDto,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Movie updatedMovie = movieWriter.updateMovie(id, movieDto, expectedVersion(id, ifMatch));
+        return ResponseEntity.ok()
+                .eTag(String.valueOf(updatedMovie.getVersion()))
+                .lastModified(updatedMovie.getUpdatedAt())
+                .body(updatedMovie);
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteMovie(@PathVariable Long id) {
-        movieWriter.deleteMovie(id);
+    public ResponseEntity<Void> deleteMovie(@PathVariable Long id,
+                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        movieWriter.deleteMovie(id, expectedVersion(id, ifMatch));
         return ResponseEntity.noContent().build();
     }
 
     @GetMapping("/filter/genre/{genre}")
-    public ResponseEntity<List<Movie>> filterByGenre(@PathVariable String genre) {
+    public ResponseEntity<List<Movie>> filterByGenre(@PathVariable String genre,
+                                                     @RequestParam(required = false) String after,
+                                                     @RequestParam(required = false) String limit,
+                                                     WebRequest request) {
         if (genre == null || genre.isEmpty()) {
             throw new InvalidDataException("Genre cannot be null or empty");
         }
         try {
             GenreFilter filter = new GenreFilter(genre);
-            Movie[] filteredMovies = movieFilter.filterMovies(filter);
-            return ResponseEntity.ok(Arrays.asList(filteredMovies));
+            return filterPage(filter, after, limit, request);
         } catch (DatabaseOperationException ex) {
             throw new DatabaseOperationException("Error filtering movies by genre: " + genre, ex);
         }
     }
 
     @GetMapping("/filter/year/{year}")
-    public ResponseEntity<List<Movie>> filterByYear(@PathVariable String year) {
-        int parsedYear;
-        try {
-            parsedYear = Integer.parseInt(year);
-        } catch (NumberFormatException ex) {
-            throw new InvalidDataException("The year must be a valid integer");
+    public ResponseEntity<List<Movie>> filterByYear(@PathVariable String year,
+                                                    @RequestParam(required = false) String after,
+                                                    @RequestParam(required = false) String limit,
+                                                    WebRequest request) {
+        YearFilter filter = new YearFilter(MovieRequestParams.parseYear(year));
+        return filterPage(filter, after, limit, request);
+    }
+
+    @GetMapping("/filter/released")
+    public ResponseEntity<List<Movie>> filterByReleaseDate(@RequestParam(required = false) String from,
+                                                           @RequestParam(required = false) String to,
+                                                           @RequestParam(required = false) String after,
+                                                           @RequestParam(required = false) String limit,
+                                                           WebRequest request) {
+        if (from == null && to == null) {
+            throw new InvalidDataException("At least one of 'from' and 'to' is required");
+        }
+        return filterPage(MovieRequestParams.releaseDateFilter(from, to), after, limit, request);
+    }
+
+    @GetMapping("/filter")
+    public ResponseEntity<List<Movie>> filterMovies(@RequestParam(required = false) List<String> genre,
+                                                    @RequestParam(required = false) List<String> excludeGenre,
+                                                    @RequestParam(required = false) String year,
+                                                    @RequestParam(required = false) String from,
+                                                    @RequestParam(required = false) String to,
+                                                    @RequestParam(required = false) String after,
+                                                    @RequestParam(required = false) String limit,
+                                                    WebRequest request) {
+        Filter filter = MovieRequestParams.combinedFilter(genre, excludeGenre, year, from, to);
+        return filterPage(filter, after, limit, request);
+    }
+
+    private ResponseEntity<List<Movie>> filterPage(Filter filter, String after, String limit, WebRequest request) {
+        int pageSize = MovieRequestParams.parsePageSize(limit);
+        Long afterId = MovieRequestParams.parseCursor(after);
+        if (collectionNotModified(request)) {
+            return null;
         }
+        if (after == null && limit == null) {
+            return ResponseEntity.ok(Arrays.asList(movieFilter.filterMovies(filter)));
+        }
+        Movie[] filteredMovies = movieFilter.filterMovies(filter, afterId, pageSize + 1);
+        return page(Arrays.asList(filteredMovies), pageSize, false);
+    }
 
-        YearFilter filter = new YearFilter(parsedYear);
-        Movie[] filteredMovies = movieFilter.filterMovies(filter);
-        return ResponseEntity.ok(Arrays.asList(filteredMovies));
+    private ResponseEntity<List<Movie>> page(List<Movie> movies, int pageSize, boolean orderedByReleaseDate) {
+        if (movies.size() <= pageSize) {
+            return ResponseEntity.ok(movies);
+        }
+        List<Movie> page = movies.subList(0, pageSize);
+        Movie last = page.get(pageSize - 1);
+        UriComponentsBuilder next = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("after", last.getId())
+                .replaceQueryParam("limit", pageSize);
+        if (orderedByReleaseDate) {
+            next.replaceQueryParam("afterDate",
+                    last.getReleaseDate() == null ? NO_RELEASE_DATE : last.getReleaseDate());
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.LINK, "<" + next.toUriString() + ">; rel=\"next\"")
+                .body(page);
+    }
+
+    /**
+     * Answers a conditional GET on a collection from the catalog version alone, before any data is
+     * read or serialized. Every write bumps the version, so a matching tag means an unchanged response.
+     * The version comes from committed writes, so the rows sent under it are read from the primary.
+     */
+    private boolean collectionNotModified(WebRequest request) {
+        CatalogVersion version = movieReader.getCatalogVersion();
+        return request.checkNotModified("\"" + version.tag() + "\"", version.lastModified().toEpochMilli());
     }
 
+    /**
+     * Answers {@code If-None-Match} on a single movie from its version alone, so an unchanged movie
+     * is neither loaded nor serialized. Without the header, or when the tag no longer matches, the
+     * movie is loaded and tagged as usual.
+     */
+    private boolean movieNotModified(Long id, WebRequest request) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) == null) {
+            return false;
+        }
+        return movieReader.getMovieVersion(id)
+                .filter(version -> request.checkNotModified("\"" + version + "\""))
+                .isPresent();
+    }
+
+    /**
+     * Returns the movie version a write must still find, or {@code null} when it is unconditional.
+     * With several listed versions only the current one can match, so it is looked up first and the
+     * write stays conditional on it.
+     */
+    private Long expectedVersion(Long id, String ifMatch) {
+        List<Long> versions = parseIfMatch(ifMatch);
+        if (versions == null) {
+            return null;
+        }
+        if (versions.isEmpty()) {
+            throw new MovieVersionConflictException(id);
+        }
+        if (versions.size() == 1) {
+            return versions.get(0);
+        }
+        Long current = movieReader.getMovieById(id).getVersion();
+        if (!versions.contains(current)) {
+            throw new MovieVersionConflictException(id);
+        }
+        return current;
+    }
+
+    /**
+     * Returns the movie versions an {@code If-Match} header accepts, or {@code null} for none or
+     * {@code *}. If-Match compares strongly, so weak tags and tags this API never issues match no
+     * version and leave the list empty.
+     */
+    private static List<Long> parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        List<Long> versions = new ArrayList<>();
+        Matcher matcher = ENTITY_TAG.matcher(ifMatch);
+        int position = 0;
+        while (position < ifMatch.length()) {
+            if (!matcher.region(position, ifMatch.length()).lookingAt()) {
+                throw new InvalidDataException("If-Match must be * or a list of entity tags");
+            }
+            if (matcher.group(1) == null && matcher.group(2).matches("\\d{1,18}")) {
+                versions.add(Long.parseLong(matcher.group(2)));
+            }
+            position = matcher.end();
+        }
+        return versions;
+    }
 }
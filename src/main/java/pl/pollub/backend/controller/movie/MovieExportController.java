@@ -0,0 +1,100 @@
+package pl.pollub.backend.controller.movie;
+
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import pl.pollub.backend.exception.InvalidDataException;
+import pl.pollub.backend.service.movie.IMovieExporter;
+import pl.pollub.backend.util.export.MovieExportFormat;
+
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/api/movies/export")
+public class MovieExportController {
+    private static final String GZIP = "gzip";
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final IMovieExporter movieExporter;
+
+    public MovieExportController(IMovieExporter movieExporter) {
+        this.movieExporter = movieExporter;
+    }
+
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> exportMovies(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        MovieExportFormat exportFormat = MovieExportFormat.fromName(format)
+                .orElseThrow(() -> new InvalidDataException("Unsupported export format: " + format));
+        boolean gzip = acceptsGzip(acceptEncoding);
+
+        StreamingResponseBody body = outputStream -> {
+            if (gzip) {
+                GZIPOutputStream gzipStream = new GZIPOutputStream(outputStream, GZIP_BUFFER_SIZE);
+                movieExporter.exportMovies(exportFormat, gzipStream);
+                gzipStream.finish();
+            } else {
+                movieExporter.exportMovies(exportFormat, outputStream);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(exportFormat.getFileName()).build().toString());
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        return response.body(body);
+    }
+
+    /**
+     * Whether {@code Accept-Encoding} allows gzip: listed by name, or through {@code *} when not
+     * listed, with a non-zero q-value.
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzipQuality = null;
+        Double anyQuality = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parameters = coding.split(";");
+            String name = parameters[0].trim().toLowerCase(Locale.ROOT);
+            double quality = quality(parameters);
+            if (name.equals(GZIP) || name.equals("x-gzip")) {
+                gzipQuality = quality;
+            } else if (name.equals("*")) {
+                anyQuality = quality;
+            }
+        }
+        if (gzipQuality != null) {
+            return gzipQuality > 0;
+        }
+        return anyQuality != null && anyQuality > 0;
+    }
+
+    private static double quality(String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            String parameter = parameters[i].trim();
+            if (parameter.length() > 2 && parameter.substring(0, 2).equalsIgnoreCase("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException ex) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,41 @@
+package pl.pollub.backend.controller.movie;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import pl.pollub.backend.dto.movie.MovieImportReportDto;
+import pl.pollub.backend.service.movie.IMovieImporter;
+import pl.pollub.backend.util.importer.MovieImportFormat;
+
+import java.io.InputStream;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/movies/import")
+public class MovieImportController {
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
+    private final IMovieImporter movieImporter;
+
+    public MovieImportController(IMovieImporter movieImporter) {
+        this.movieImporter = movieImporter;
+    }
+
+    @PostMapping(consumes = TEXT_CSV_VALUE)
+    public ResponseEntity<MovieImportReportDto> importCsv(InputStream body) {
+        return ResponseEntity.ok(movieImporter.importMovies(body, MovieImportFormat.CSV));
+    }
+
+    @PostMapping(consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<MovieImportReportDto> importNdjson(InputStream body) {
+        return ResponseEntity.ok(movieImporter.importMovies(body, MovieImportFormat.NDJSON));
+    }
+
+    @GetMapping("/progress")
+    public ResponseEntity<List<MovieImportReportDto>> getActiveImports() {
+        return ResponseEntity.ok(movieImporter.getActiveImports());
+    }
+}
@@ -0,0 +1,112 @@
+package pl.pollub.backend.controller.movie;
+
+import pl.pollub.backend.exception.InvalidDataException;
+import pl.pollub.backend.util.filter.AndFilter;
+import pl.pollub.backend.util.filter.Filter;
+import pl.pollub.backend.util.filter.GenreFilter;
+import pl.pollub.backend.util.filter.NotFilter;
+import pl.pollub.backend.util.filter.OrFilter;
+import pl.pollub.backend.util.filter.ReleaseDateFilter;
+import pl.pollub.backend.util.filter.YearFilter;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Query parameter parsing shared by the servlet and reactive movie endpoints, so both reject the
+ * same input with the same messages.
+ */
+final class MovieRequestParams {
+    static final int DEFAULT_PAGE_SIZE = 100;
+    static final int MAX_PAGE_SIZE = 1000;
+
+    private MovieRequestParams() {
+    }
+
+    /**
+     * Combines the criteria of the generic filter endpoint: any of {@code genre}, none of
+     * {@code excludeGenre}, the release {@code year} and the {@code from}/{@code to} date range.
+     */
+    static Filter combinedFilter(List<String> genre, List<String> excludeGenre, String year, String from, String to) {
+        List<Filter> filters = new ArrayList<>();
+        if (genre != null && !genre.isEmpty()) {
+            filters.add(new OrFilter(genre.stream().map(MovieRequestParams::genreFilter).toList()));
+        }
+        if (excludeGenre != null && !excludeGenre.isEmpty()) {
+            filters.add(new NotFilter(new OrFilter(excludeGenre.stream().map(MovieRequestParams::genreFilter).toList())));
+        }
+        if (year != null) {
+            filters.add(new YearFilter(parseYear(year)));
+        }
+        if (from != null || to != null) {
+            filters.add(releaseDateFilter(from, to));
+        }
+        if (filters.isEmpty()) {
+            throw new InvalidDataException("At least one filter criterion is required");
+        }
+        return new AndFilter(filters);
+    }
+
+    static Long parseCursor(String after) {
+        if (after == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(after);
+        } catch (NumberFormatException ex) {
+            throw new InvalidDataException("The 'after' cursor must be a valid movie id");
+        }
+    }
+
+    static int parsePageSize(String limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        try {
+            int pageSize = Integer.parseInt(limit);
+            if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+                throw new InvalidDataException("The limit must be between 1 and " + MAX_PAGE_SIZE);
+            }
+            return pageSize;
+        } catch (NumberFormatException ex) {
+            throw new InvalidDataException("The limit must be a valid integer");
+        }
+    }
+
+    static Filter genreFilter(String genre) {
+        if (genre == null || genre.isBlank()) {
+            throw new InvalidDataException("Genre cannot be null or empty");
+        }
+        return new GenreFilter(genre);
+    }
+
+    static Filter releaseDateFilter(String from, String to) {
+        LocalDate fromDate = parseDate(from);
+        LocalDate toDate = parseDate(to);
+        if (fromDate != null && toDate != null && fromDate.isAfter(toDate)) {
+            throw new InvalidDataException("The 'from' date cannot be after the 'to' date");
+        }
+        return new ReleaseDateFilter(fromDate, toDate);
+    }
+
+    static int parseYear(String year) {
+        try {
+            return Integer.parseInt(year);
+        } catch (NumberFormatException ex) {
+            throw new InvalidDataException("The year must be a valid integer");
+        }
+    }
+
+    static LocalDate parseDate(String date) {
+        if (date == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(date);
+        } catch (DateTimeParseException ex) {
+            throw new InvalidDataException("Dates must use the yyyy-MM-dd format");
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package pl.pollub.backend.controller.movie;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import pl.pollub.backend.dto.movie.MovieSuggestionDto;
+import pl.pollub.backend.exception.InvalidDataException;
+import pl.pollub.backend.util.search.TitleSuggestionTrie;
+import pl.pollub.backend.model.movie.Movie;
+import pl.pollub.backend.service.movie.IMovieSearch;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/movies")
+public class MovieSearchController {
+    private static final int DEFAULT_RESULT_LIMIT = 20;
+    private static final int MAX_RESULT_LIMIT = 100;
+
+    private final IMovieSearch movieSearch;
+
+    public MovieSearchController(IMovieSearch movieSearch) {
+        this.movieSearch = movieSearch;
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<Movie>> searchMovies(@RequestParam(required = false) String q,
+                                                    @RequestParam(required = false) String limit) {
+        return ResponseEntity.ok(movieSearch.searchMovies(q, parseLimit(limit, DEFAULT_RESULT_LIMIT, MAX_RESULT_LIMIT)));
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<MovieSuggestionDto>> suggestTitles(@RequestParam(required = false) String prefix,
+                                                                  @RequestParam(required = false) String limit) {
+        int maxLimit = TitleSuggestionTrie.SUGGESTIONS_PER_NODE;
+        return ResponseEntity.ok(movieSearch.suggestTitles(prefix, parseLimit(limit, maxLimit, maxLimit)));
+    }
+
+    private static int parseLimit(String limit, int defaultLimit, int maxLimit) {
+        if (limit == null) {
+            return defaultLimit;
+        }
+        try {
+            int value = Integer.parseInt(limit);
+            if (value < 1 || value > maxLimit) {
+                throw new InvalidDataException("Limit must be between 1 and " + maxLimit);
+            }
+            return value;
+        } catch (NumberFormatException ex) {
+            throw new InvalidDataException("Invalid limit format");
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package pl.pollub.backend.controller.movie;
+
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import pl.pollub.backend.exception.InvalidDataException;
+import pl.pollub.backend.model.movie.Movie;
+import pl.pollub.backend.service.movie.IReactiveMovieFilter;
+import pl.pollub.backend.service.movie.IReactiveMovieReader;
+import pl.pollub.backend.util.catalog.CatalogVersion;
+import pl.pollub.backend.util.filter.Filter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Reactive read-only mirror of {@link MovieController}, served by the Netty server next to Tomcat.
+ * Listings and filter results are written as they arrive; with {@code Accept: application/x-ndjson}
+ * each movie is flushed on its own and the database is only read as fast as the client consumes.
+ * Both are paged by {@code after} / {@code limit} and tagged with the catalog version, like the
+ * servlet endpoints.
+ */
+@Component
+public class ReactiveMovieHandler {
+    private final IReactiveMovieReader movieReader;
+    private final IReactiveMovieFilter movieFilter;
+
+    public ReactiveMovieHandler(IReactiveMovieReader movieReader, IReactiveMovieFilter movieFilter) {
+        this.movieReader = movieReader;
+        this.movieFilter = movieFilter;
+    }
+
+    public Mono<ServerResponse> getAllMovies(ServerRequest request) {
+        return Mono.defer(() -> {
+            String after = request.queryParam("after").orElse(null);
+            String limit = request.queryParam("limit").orElse(null);
+            Flux<Movie> movies = after == null && limit == null
+                    ? movieReader.getAllMovies()
+                    : movieReader.getMoviesAfter(MovieRequestParams.parseCursor(after),
+                            MovieRequestParams.parsePageSize(limit));
+            return collection(request, movies);
+        });
+    }
+
+    /**
+     * Answers {@code If-None-Match} / {@code If-Modified-Since} with 304, like the servlet endpoint.
+     */
+    public Mono<ServerResponse> getMovieById(ServerRequest request) {
+        return Mono.defer(() -> movieReader.getMovieById(parseId(request.pathVariable("id"))))
+                .flatMap(movie -> notModified(request, movie)
+                        .switchIfEmpty(Mono.defer(() -> ServerResponse.ok()
+                                .eTag(String.valueOf(movie.getVersion()))
+                                .lastModified(movie.getUpdatedAt())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .bodyValue(movie))));
+    }
+
+    public Mono<ServerResponse> filterMovies(ServerRequest request) {
+        return Mono.defer(() -> {
+            List<String> genre = request.queryParams().get("genre");
+            List<String> excludeGenre = request.queryParams().get("excludeGenre");
+            Filter filter = MovieRequestParams.combinedFilter(genre, excludeGenre,
+                    request.queryParam("year").orElse(null),
+                    request.queryParam("from").orElse(null),
+                    request.queryParam("to").orElse(null));
+            String after = request.queryParam("after").orElse(null);
+            String limit = request.queryParam("limit").orElse(null);
+            Flux<Movie> movies = after == null && limit == null
+                    ? movieFilter.filterMovies(filter)
+                    : movieFilter.filterMovies(filter, MovieRequestParams.parseCursor(after),
+                            MovieRequestParams.parsePageSize(limit));
+            return collection(request, movies);
+        });
+    }
+
+    /**
+     * Answers a conditional GET on a collection from the catalog version alone, read before the
+     * movies are, so the tag sent never claims more than the rows that follow it. Otherwise streams
+     * {@code movies} under that tag.
+     */
+    private Mono<ServerResponse> collection(ServerRequest request, Flux<Movie> movies) {
+        CatalogVersion version = movieReader.getCatalogVersion();
+        String etag = "\"" + version.tag() + "\"";
+        MediaType contentType = request.headers().accept().contains(MediaType.APPLICATION_NDJSON)
+                ? MediaType.APPLICATION_NDJSON
+                : MediaType.APPLICATION_JSON;
+        return request.checkNotModified(version.lastModified(), etag)
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.ok()
+                        .eTag(etag)
+                        .lastModified(version.lastModified())
+                        .contentType(contentType)
+                        .body(movies, Movie.class)));
+    }
+
+    private static Mono<ServerResponse> notModified(ServerRequest request, Movie movie) {
+        String etag = "\"" + movie.getVersion() + "\"";
+        return movie.getUpdatedAt() == null
+                ? request.checkNotModified(etag)
+                : request.checkNotModified(movie.getUpdatedAt(), etag);
+    }
+
+    private static long parseId(String id) {
+        try {
+            return Long.parseLong(id);
+        } catch (NumberFormatException ex) {
+            throw new InvalidDataException("The movie id must be a valid integer");
+        }
+    }
+}
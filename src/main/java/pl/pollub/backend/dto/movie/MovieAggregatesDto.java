@@ -0,0 +1,21 @@
+package pl.pollub.backend.dto.movie;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MovieAggregatesDto {
+    private long total;
+    private Map<String, Long> byGenre;
+    private Map<Integer, Long> byYear;
+    private Map<String, Long> byMonth;
+    private Instant recomputedAt;
+}
@@ -0,0 +1,18 @@
+package pl.pollub.backend.dto.movie;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import pl.pollub.backend.model.movie.Movie;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MovieBatchResultDto {
+    private List<Movie> saved;
+    private List<MovieBatchErrorDto> errors;
+}
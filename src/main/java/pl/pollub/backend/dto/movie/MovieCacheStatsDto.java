@@ -0,0 +1,18 @@
+package pl.pollub.backend.dto.movie;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MovieCacheStatsDto {
+    private long size;
+    private long hitCount;
+    private long missCount;
+    private double hitRatio;
+    private long evictionCount;
+}
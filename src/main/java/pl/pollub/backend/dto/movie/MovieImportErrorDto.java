@@ -0,0 +1,15 @@
+package pl.pollub.backend.dto.movie;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MovieImportErrorDto {
+    private long row;
+    private String message;
+}
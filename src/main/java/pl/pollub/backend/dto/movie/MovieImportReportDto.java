@@ -0,0 +1,21 @@
+package pl.pollub.backend.dto.movie;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MovieImportReportDto {
+    private String id;
+    private boolean finished;
+    private long rowsRead;
+    private long imported;
+    private long failed;
+    private List<MovieImportErrorDto> failedRows;
+}
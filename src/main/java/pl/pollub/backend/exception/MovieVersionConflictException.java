@@ -0,0 +1,7 @@
+package pl.pollub.backend.exception;
+
+public class MovieVersionConflictException extends RuntimeException {
+    public MovieVersionConflictException(Long id) {
+        super("Movie with ID " + id + " was modified by another request");
+    }
+}
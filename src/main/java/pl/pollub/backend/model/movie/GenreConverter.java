@@ -0,0 +1,41 @@
+package pl.pollub.backend.model.movie;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.springframework.context.annotation.Lazy;
+import pl.pollub.backend.service.movie.GenreService;
+
+/**
+ * Stores a movie's genre name as the integer key of its {@link Genre} dictionary entry.
+ * Names missing from the dictionary map to a key no row uses, so queries for them match nothing.
+ */
+@Converter
+public class GenreConverter implements AttributeConverter<String, Integer> {
+    private static final int UNKNOWN_GENRE_ID = -1;
+
+    private final GenreService genreService;
+
+    public GenreConverter(@Lazy GenreService genreService) {
+        this.genreService = genreService;
+    }
+
+    @Override
+    public Integer convertToDatabaseColumn(String genre) {
+        if (genre == null) {
+            return null;
+        }
+        return genreService.findByName(genre)
+                .map(Genre::getId)
+                .orElse(UNKNOWN_GENRE_ID);
+    }
+
+    @Override
+    public String convertToEntityAttribute(Integer genreId) {
+        if (genreId == null) {
+            return null;
+        }
+        return genreService.findById(genreId)
+                .map(Genre::getName)
+                .orElse(null);
+    }
+}
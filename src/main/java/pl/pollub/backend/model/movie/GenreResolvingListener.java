@@ -0,0 +1,22 @@
+package pl.pollub.backend.model.movie;
+
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import org.springframework.context.annotation.Lazy;
+import pl.pollub.backend.service.movie.GenreService;
+
+public class GenreResolvingListener {
+    private final GenreService genreService;
+
+    public GenreResolvingListener(@Lazy GenreService genreService) {
+        this.genreService = genreService;
+    }
+
+    @PrePersist
+    @PreUpdate
+    public void resolveGenre(Movie movie) {
+        if (movie.getGenre() != null) {
+            movie.setGenre(genreService.resolve(movie.getGenre()).getName());
+        }
+    }
+}
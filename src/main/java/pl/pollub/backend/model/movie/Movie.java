@@ -1,26 +1,80 @@
 package pl.pollub.backend.model.movie;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Version;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
+import lombok.ToString;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 
 @Entity
+@EntityListeners(GenreResolvingListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class Movie {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "movie_id_seq")
+    @SequenceGenerator(name = "movie_id_seq", sequenceName = "movie_id_seq", allocationSize = 50)
     private Long id;
 
     private String title;
+
+    @Convert(converter = GenreConverter.class)
+    @Column(name = "genre_id")
     private String genre;
+
     private LocalDate releaseDate;
+
+    /** Year of {@link #releaseDate}, persisted so year filters can use an index. */
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private Integer releaseYear;
+
+    /** Time of the last insert or update, the validator for conditional requests. */
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @Column(nullable = false)
+    private Instant updatedAt;
+
+    /** Optimistic lock, exposed to clients as the movie's ETag. */
+    @Version
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private Long version;
+
+    public void setReleaseDate(LocalDate releaseDate) {
+        this.releaseDate = releaseDate;
+        syncReleaseYear();
+    }
+
+    @PrePersist
+    @PreUpdate
+    void beforeWrite() {
+        syncReleaseYear();
+        updatedAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    private void syncReleaseYear() {
+        releaseYear = releaseDate == null ? null : releaseDate.getYear();
+    }
 }
@@ -0,0 +1,26 @@
+package pl.pollub.backend.repository.auth;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking user lookups over R2DBC, so the reactive endpoints can check an account without
+ * tying an event-loop thread to a JDBC call.
+ */
+@Repository
+public class ReactiveUserRepository {
+    private final DatabaseClient databaseClient;
+
+    public ReactiveUserRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Mono<Boolean> existsByUsername(String username) {
+        return databaseClient.sql("SELECT 1 FROM users WHERE username = :username")
+                .bind("username", username)
+                .map(row -> Boolean.TRUE)
+                .first()
+                .defaultIfEmpty(Boolean.FALSE);
+    }
+}
@@ -1,10 +1,49 @@
 package pl.pollub.backend.repository.movie;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import pl.pollub.backend.model.movie.Movie;
 
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
-public interface IMovieRepository extends JpaRepository<Movie, Long> {
-}
+public interface IMovieRepository extends JpaRepository<Movie, Long>, JpaSpecificationExecutor<Movie>,
+        IMovieStreamRepository, IMovieUpdateRepository {
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<Movie> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<Movie> findByReleaseDateNotNullOrderByReleaseDateAscIdAsc(Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<Movie> findByReleaseDateIsNullAndIdGreaterThanOrderByIdAsc(Long id, Limit limit);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query(value = "SELECT * FROM movie m WHERE (m.release_date, m.id) > (:releaseDate, :id) " +
+            "ORDER BY m.release_date, m.id LIMIT :limit", nativeQuery = true)
+    List<Movie> findByReleaseDateAndIdAfter(LocalDate releaseDate, Long id, int limit);
+
+    @Query("SELECT m.version FROM Movie m WHERE m.id = :id")
+    Optional<Long> findVersionById(Long id);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Movie m WHERE m.id = :id")
+    int deleteMovieById(Long id);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Movie m WHERE m.id = :id AND m.version = :version")
+    int deleteMovieByIdAndVersion(Long id, Long version);
+}
@@ -0,0 +1,12 @@
+package pl.pollub.backend.repository.movie;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * Receives movie rows as plain column values, without building entities.
+ */
+@FunctionalInterface
+public interface IMovieRowHandler {
+    void handle(long id, String title, String genre, LocalDate releaseDate) throws IOException;
+}
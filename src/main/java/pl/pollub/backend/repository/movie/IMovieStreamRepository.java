@@ -0,0 +1,10 @@
+package pl.pollub.backend.repository.movie;
+
+import pl.pollub.backend.model.movie.Movie;
+
+import java.util.function.Consumer;
+
+public interface IMovieStreamRepository {
+    void forEachMovie(Consumer<Movie> consumer);
+    void forEachMovieRow(IMovieRowHandler handler);
+}
@@ -0,0 +1,65 @@
+package pl.pollub.backend.repository.movie;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import pl.pollub.backend.model.movie.Movie;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+public class IMovieStreamRepositoryImpl implements IMovieStreamRepository {
+    private static final int FETCH_SIZE = 500;
+
+    private static final String ROWS_QUERY = "SELECT m.id, m.title, g.name, m.release_date "
+            + "FROM movie m LEFT JOIN genre g ON g.id = m.genre_id ORDER BY m.id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IMovieStreamRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+    }
+
+    /**
+     * Streams every movie in id order through a server-side cursor. Each entity is detached once the
+     * consumer returns, so the persistence context never holds more than one row. Needs an open transaction.
+     */
+    @Override
+    public void forEachMovie(Consumer<Movie> consumer) {
+        try (Stream<Movie> movies = entityManager
+                .createQuery("SELECT m FROM Movie m ORDER BY m.id", Movie.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()) {
+            movies.forEach(movie -> {
+                consumer.accept(movie);
+                entityManager.detach(movie);
+            });
+        }
+    }
+
+    /**
+     * Streams every movie row in id order through a server-side cursor, reading the columns straight
+     * from the result set. Needs an open transaction for the cursor to be used.
+     */
+    @Override
+    public void forEachMovieRow(IMovieRowHandler handler) {
+        jdbcTemplate.query(ROWS_QUERY, (RowCallbackHandler) resultSet -> {
+            try {
+                handler.handle(resultSet.getLong(1), resultSet.getString(2), resultSet.getString(3),
+                        resultSet.getObject(4, LocalDate.class));
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+    }
+}
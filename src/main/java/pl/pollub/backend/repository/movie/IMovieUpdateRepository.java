@@ -0,0 +1,12 @@
+package pl.pollub.backend.repository.movie;
+
+import pl.pollub.backend.model.movie.Movie;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Optional;
+
+public interface IMovieUpdateRepository {
+    Optional<Movie> updateMovie(Long id, Long expectedVersion, String title, Integer genreId,
+                                LocalDate releaseDate, Instant updatedAt);
+}
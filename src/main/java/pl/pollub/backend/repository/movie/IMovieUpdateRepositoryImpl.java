@@ -0,0 +1,82 @@
+package pl.pollub.backend.repository.movie;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import pl.pollub.backend.model.movie.Movie;
+
+import java.sql.DatabaseMetaData;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+public class IMovieUpdateRepositoryImpl implements IMovieUpdateRepository {
+    private static final String POSTGRESQL = "PostgreSQL";
+
+    private static final String UPDATE = "UPDATE movie SET title = COALESCE(?, title), "
+            + "genre_id = COALESCE(?, genre_id), release_date = COALESCE(?, release_date), "
+            + "release_year = COALESCE(?, release_year), updated_at = ?, version = version + 1 WHERE id = ?";
+    private static final String VERSION_CONDITION = " AND version = ?";
+    private static final String COLUMNS = "u.id, u.title, g.name, u.release_date, u.release_year, u.updated_at, u.version";
+
+    private static final RowMapper<Movie> MOVIE_MAPPER = (resultSet, row) -> Movie.builder()
+            .id(resultSet.getLong(1))
+            .title(resultSet.getString(2))
+            .genre(resultSet.getString(3))
+            .releaseDate(resultSet.getObject(4, LocalDate.class))
+            .releaseYear(resultSet.getObject(5, Integer.class))
+            .updatedAt(resultSet.getObject(6, OffsetDateTime.class).toInstant())
+            .version(resultSet.getLong(7))
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean postgresql;
+
+    public IMovieUpdateRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.postgresql = POSTGRESQL.equals(databaseProductName(jdbcTemplate));
+    }
+
+    /**
+     * Applies the non-null fields in one conditional statement that also returns the new row, so a
+     * write costs a single round trip. Returns empty when no row has {@code id} (and
+     * {@code expectedVersion}, if given). PostgreSQL reads the row back through
+     * {@code UPDATE ... RETURNING}, other databases (H2 in tests) through a {@code FINAL TABLE}.
+     */
+    @Override
+    public Optional<Movie> updateMovie(Long id, Long expectedVersion, String title, Integer genreId,
+                                       LocalDate releaseDate, Instant updatedAt) {
+        String update = expectedVersion == null ? UPDATE : UPDATE + VERSION_CONDITION;
+        String sql = postgresql
+                ? "WITH u AS (" + update + " RETURNING *) SELECT " + COLUMNS + " FROM u LEFT JOIN genre g ON g.id = u.genre_id"
+                : "SELECT " + COLUMNS + " FROM FINAL TABLE (" + update + ") u LEFT JOIN genre g ON g.id = u.genre_id";
+
+        List<Object> arguments = new ArrayList<>(List.of(
+                new SqlParameterValue(Types.VARCHAR, title),
+                new SqlParameterValue(Types.INTEGER, genreId),
+                new SqlParameterValue(Types.DATE, releaseDate),
+                new SqlParameterValue(Types.INTEGER, releaseDate == null ? null : releaseDate.getYear()),
+                new SqlParameterValue(Types.TIMESTAMP_WITH_TIMEZONE, updatedAt.atOffset(ZoneOffset.UTC)),
+                id));
+        if (expectedVersion != null) {
+            arguments.add(expectedVersion);
+        }
+        return jdbcTemplate.query(sql, MOVIE_MAPPER, arguments.toArray()).stream().findFirst();
+    }
+
+    private static String databaseProductName(JdbcTemplate jdbcTemplate) {
+        try {
+            return JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(),
+                    DatabaseMetaData::getDatabaseProductName);
+        } catch (MetaDataAccessException ex) {
+            return "";
+        }
+    }
+}
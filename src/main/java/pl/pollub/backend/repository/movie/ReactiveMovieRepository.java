@@ -0,0 +1,64 @@
+package pl.pollub.backend.repository.movie;
+
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import pl.pollub.backend.model.movie.Movie;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+/**
+ * Non-blocking movie reads over R2DBC. Results are fetched in chunks of {@code FETCH_SIZE} rows as
+ * the subscriber requests them, so a slow consumer holds back the cursor instead of buffering the
+ * table.
+ */
+@Repository
+public class ReactiveMovieRepository {
+    private static final int FETCH_SIZE = 500;
+    private static final String SELECT = "SELECT m.id, m.title, g.name AS genre, m.release_date, m.release_year, "
+            + "m.updated_at, m.version FROM movie m LEFT JOIN genre g ON g.id = m.genre_id";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveMovieRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Flux<Movie> findAll() {
+        return databaseClient.sql(SELECT + " ORDER BY m.id")
+                .filter(statement -> statement.fetchSize(FETCH_SIZE))
+                .map(ReactiveMovieRepository::toMovie)
+                .all();
+    }
+
+    public Flux<Movie> findAfter(long afterId, int limit) {
+        return databaseClient.sql(SELECT + " WHERE m.id > :afterId ORDER BY m.id LIMIT :limit")
+                .bind("afterId", afterId)
+                .bind("limit", limit)
+                .map(ReactiveMovieRepository::toMovie)
+                .all();
+    }
+
+    public Mono<Movie> findById(long id) {
+        return databaseClient.sql(SELECT + " WHERE m.id = :id")
+                .bind("id", id)
+                .map(ReactiveMovieRepository::toMovie)
+                .one();
+    }
+
+    private static Movie toMovie(Readable row) {
+        OffsetDateTime updatedAt = row.get("updated_at", OffsetDateTime.class);
+        return Movie.builder()
+                .id(row.get("id", Long.class))
+                .title(row.get("title", String.class))
+                .genre(row.get("genre", String.class))
+                .releaseDate(row.get("release_date", LocalDate.class))
+                .releaseYear(row.get("release_year", Integer.class))
+                .updatedAt(updatedAt == null ? null : updatedAt.toInstant())
+                .version(row.get("version", Long.class))
+                .build();
+    }
+}
@@ -0,0 +1,187 @@
+package pl.pollub.backend.service.movie;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import pl.pollub.backend.exception.DatabaseOperationException;
+import pl.pollub.backend.model.movie.Genre;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Dictionary of genres keyed by their canonical lower-cased code. Lookups are served from memory;
+ * misses and inserts run on the caller's connection and transaction, so resolving a genre while
+ * saving a movie never needs a second connection. A genre inserted by a transaction only enters the
+ * shared cache once that transaction commits.
+ */
+@Service
+public class GenreService implements IGenreReader {
+    private static final String SELECT_GENRES = "SELECT id, code, name FROM genre";
+    private static final RowMapper<Genre> GENRE_ROW = (rs, rowNum) -> Genre.builder()
+            .id(rs.getInt("id"))
+            .code(rs.getString("code"))
+            .name(rs.getString("name"))
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<String, Genre> genresByCode = new ConcurrentHashMap<>();
+    private final Map<Integer, Genre> genresById = new ConcurrentHashMap<>();
+    private final Lock loadLock = new ReentrantLock();
+    private volatile boolean loaded;
+
+    public GenreService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<Genre> getAllGenres() {
+        loadIfNeeded();
+        return genresById.values().stream()
+                .sorted(Comparator.comparing(Genre::getName, String.CASE_INSENSITIVE_ORDER))
+                .toList();
+    }
+
+    public Optional<Genre> findByName(String name) {
+        String code = codeOf(name);
+        Genre genre = genresByCode.get(code);
+        if (genre != null) {
+            return Optional.of(genre);
+        }
+        PendingGenres pending = PendingGenres.current();
+        if (pending != null && pending.byCode.containsKey(code)) {
+            return Optional.of(pending.byCode.get(code));
+        }
+        return queryGenre("code = ?", code).map(this::cache);
+    }
+
+    public Optional<Genre> findById(Integer id) {
+        Genre genre = genresById.get(id);
+        if (genre != null) {
+            return Optional.of(genre);
+        }
+        PendingGenres pending = PendingGenres.current();
+        if (pending != null && pending.byId.containsKey(id)) {
+            return Optional.of(pending.byId.get(id));
+        }
+        return queryGenre("id = ?", id).map(this::cache);
+    }
+
+    /**
+     * Returns the genre with the given name, inserting it if missing. Inside a transaction the
+     * insert commits or rolls back with it; a concurrent insert of the same code is skipped rather
+     * than failing, and the row that won is returned instead.
+     */
+    public Genre resolve(String name) {
+        Optional<Genre> existing = findByName(name);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        String code = codeOf(name);
+        int inserted;
+        Genre genre;
+        try {
+            inserted = jdbcTemplate.update("INSERT INTO genre (code, name) VALUES (?, ?) ON CONFLICT DO NOTHING",
+                    code, name.trim());
+            genre = jdbcTemplate.queryForObject(SELECT_GENRES + " WHERE code = ?", GENRE_ROW, code);
+        } catch (DataAccessException ex) {
+            throw new DatabaseOperationException("Failed to resolve genre " + name, ex);
+        }
+        if (inserted == 0 || !TransactionSynchronizationManager.isActualTransactionActive()) {
+            return cache(genre);
+        }
+        PendingGenres.bind(this).add(genre);
+        return genre;
+    }
+
+    public static String codeOf(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private void loadIfNeeded() {
+        if (loaded) {
+            return;
+        }
+        loadLock.lock();
+        try {
+            if (!loaded) {
+                queryGenres(SELECT_GENRES).forEach(this::cache);
+                loaded = true;
+            }
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    private Genre cache(Genre genre) {
+        genresByCode.put(genre.getCode(), genre);
+        genresById.put(genre.getId(), genre);
+        return genre;
+    }
+
+    private Optional<Genre> queryGenre(String condition, Object argument) {
+        return queryGenres(SELECT_GENRES + " WHERE " + condition, argument).stream().findFirst();
+    }
+
+    private List<Genre> queryGenres(String sql, Object... arguments) {
+        try {
+            return jdbcTemplate.query(sql, GENRE_ROW, arguments);
+        } catch (DataAccessException ex) {
+            throw new DatabaseOperationException("Failed to access genres", ex);
+        }
+    }
+
+    /**
+     * Genres inserted by the current transaction. They are visible to its own lookups straight away
+     * and handed to the shared cache only after commit.
+     */
+    private static final class PendingGenres implements TransactionSynchronization {
+        private final GenreService owner;
+        private final Map<String, Genre> byCode = new HashMap<>();
+        private final Map<Integer, Genre> byId = new HashMap<>();
+
+        private PendingGenres(GenreService owner) {
+            this.owner = owner;
+        }
+
+        static PendingGenres current() {
+            return (PendingGenres) TransactionSynchronizationManager.getResource(PendingGenres.class);
+        }
+
+        static PendingGenres bind(GenreService owner) {
+            PendingGenres pending = current();
+            if (pending == null) {
+                pending = new PendingGenres(owner);
+                TransactionSynchronizationManager.bindResource(PendingGenres.class, pending);
+                TransactionSynchronizationManager.registerSynchronization(pending);
+            }
+            return pending;
+        }
+
+        void add(Genre genre) {
+            byCode.put(genre.getCode(), genre);
+            byId.put(genre.getId(), genre);
+        }
+
+        @Override
+        public void afterCommit() {
+            byId.values().forEach(owner::cache);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResource(PendingGenres.class);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package pl.pollub.backend.service.movie;
+
+import pl.pollub.backend.model.movie.Genre;
+
+import java.util.List;
+
+public interface IGenreReader {
+    List<Genre> getAllGenres();
+}
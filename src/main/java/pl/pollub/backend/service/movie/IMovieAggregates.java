@@ -0,0 +1,7 @@
+package pl.pollub.backend.service.movie;
+
+import pl.pollub.backend.dto.movie.MovieAggregatesDto;
+
+public interface IMovieAggregates {
+    MovieAggregatesDto getAggregates();
+}
@@ -0,0 +1,10 @@
+package pl.pollub.backend.service.movie;
+
+import pl.pollub.backend.util.export.MovieExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface IMovieExporter {
+    void exportMovies(MovieExportFormat format, OutputStream output) throws IOException;
+}
@@ -5,4 +5,5 @@ import pl.pollub.backend.model.movie.Movie;
 
 public interface IMovieFilter {
     Movie[] filterMovies(Filter filter);
-}
\ No newline at end of file
+    Movie[] filterMovies(Filter filter, Long afterId, int limit);
+}
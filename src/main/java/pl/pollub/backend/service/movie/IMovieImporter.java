@@ -0,0 +1,12 @@
+package pl.pollub.backend.service.movie;
+
+import pl.pollub.backend.dto.movie.MovieImportReportDto;
+import pl.pollub.backend.util.importer.MovieImportFormat;
+
+import java.io.InputStream;
+import java.util.List;
+
+public interface IMovieImporter {
+    MovieImportReportDto importMovies(InputStream input, MovieImportFormat format);
+    List<MovieImportReportDto> getActiveImports();
+}
@@ -1,10 +1,35 @@
 package pl.pollub.backend.service.movie;
 
+import pl.pollub.backend.dto.movie.MovieCacheStatsDto;
 import pl.pollub.backend.model.movie.Movie;
+import pl.pollub.backend.util.catalog.CatalogVersion;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface IMovieReader {
     List<Movie> getAllMovies();
     Movie getMovieById(Long id);
+
+    /**
+     * Returns the current version of the movie without loading it, or empty when the movie does
+     * not exist or has no version.
+     */
+    Optional<Long> getMovieVersion(Long id);
+
+    List<Movie> getMoviesAfter(Long afterId, int limit);
+
+    /**
+     * Returns up to {@code limit} movies ordered by release date and id, movies without a release
+     * date last. The page follows the movie ({@code afterDate}, {@code afterId}); with no
+     * {@code afterId} it is the first page, and a {@code null} {@code afterDate} with an
+     * {@code afterId} continues among the movies without a release date.
+     */
+    List<Movie> getMoviesByReleaseDateAfter(LocalDate afterDate, Long afterId, int limit);
+
+    void streamAllMovies(Consumer<Movie> consumer);
+    MovieCacheStatsDto getCacheStats();
+    CatalogVersion getCatalogVersion();
 }
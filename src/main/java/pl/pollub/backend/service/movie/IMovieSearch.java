@@ -0,0 +1,12 @@
+package pl.pollub.backend.service.movie;
+
+import pl.pollub.backend.dto.movie.MovieSuggestionDto;
+import pl.pollub.backend.model.movie.Movie;
+
+import java.util.List;
+
+public interface IMovieSearch {
+    List<Movie> searchMovies(String query, int limit);
+
+    List<MovieSuggestionDto> suggestTitles(String prefix, int limit);
+}
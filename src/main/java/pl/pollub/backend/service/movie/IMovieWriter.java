@@ -1,12 +1,24 @@
 package pl.pollub.backend.service.movie;
 
+import pl.pollub.backend.dto.movie.MovieBatchResultDto;
 import pl.pollub.backend.dto.movie.MovieDto;
 import pl.pollub.backend.model.movie.Movie;
 
+import java.util.List;
+
 public interface IMovieWriter {
 
     Movie saveMovie(MovieDto movieDto);
-    Movie updateMovie(Long id, MovieDto movieDto);
-    void deleteMovie(Long id);
+    MovieBatchResultDto saveMovies(List<MovieDto> movieDtos);
+    Movie updateMovie(Long id, MovieDto movieDto, Long expectedVersion);
+    void deleteMovie(Long id, Long expectedVersion);
+
+    default Movie updateMovie(Long id, MovieDto movieDto) {
+        return updateMovie(id, movieDto, null);
+    }
+
+    default void deleteMovie(Long id) {
+        deleteMovie(id, null);
+    }
 
 }
@@ -0,0 +1,10 @@
+package pl.pollub.backend.service.movie;
+
+import pl.pollub.backend.model.movie.Movie;
+import pl.pollub.backend.util.filter.Filter;
+import reactor.core.publisher.Flux;
+
+public interface IReactiveMovieFilter {
+    Flux<Movie> filterMovies(Filter filter);
+    Flux<Movie> filterMovies(Filter filter, Long afterId, int limit);
+}
@@ -0,0 +1,13 @@
+package pl.pollub.backend.service.movie;
+
+import pl.pollub.backend.model.movie.Movie;
+import pl.pollub.backend.util.catalog.CatalogVersion;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface IReactiveMovieReader {
+    Flux<Movie> getAllMovies();
+    Mono<Movie> getMovieById(Long id);
+    Flux<Movie> getMoviesAfter(Long afterId, int limit);
+    CatalogVersion getCatalogVersion();
+}
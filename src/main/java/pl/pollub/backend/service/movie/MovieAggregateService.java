@@ -0,0 +1,36 @@
+package pl.pollub.backend.service.movie;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import pl.pollub.backend.dto.movie.MovieAggregatesDto;
+import pl.pollub.backend.util.catalog.MovieAggregates;
+import pl.pollub.backend.util.datasource.PrimaryReads;
+
+@Service
+public class MovieAggregateService implements IMovieAggregates {
+    private final IMovieReader movieReader;
+    private final MovieAggregates movieAggregates;
+
+    public MovieAggregateService(IMovieReader movieReader, MovieAggregates movieAggregates) {
+        this.movieReader = movieReader;
+        this.movieAggregates = movieAggregates;
+    }
+
+    @Override
+    public MovieAggregatesDto getAggregates() {
+        movieAggregates.loadIfNeeded(consumer -> PrimaryReads.run(() -> movieReader.streamAllMovies(consumer)));
+        return movieAggregates.snapshot();
+    }
+
+    /**
+     * Periodically recounts from the database to correct drift, e.g. from rows written around the
+     * service. Skipped until the aggregates have been requested once.
+     */
+    @Scheduled(fixedDelayString = "${movies.aggregates.recompute-interval:PT10M}",
+            initialDelayString = "${movies.aggregates.recompute-interval:PT10M}")
+    public void recompute() {
+        if (movieAggregates.isLoaded()) {
+            movieAggregates.rebuild(consumer -> PrimaryReads.run(() -> movieReader.streamAllMovies(consumer)));
+        }
+    }
+}
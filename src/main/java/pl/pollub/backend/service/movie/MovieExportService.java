@@ -0,0 +1,39 @@
+package pl.pollub.backend.service.movie;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import pl.pollub.backend.exception.DatabaseOperationException;
+import pl.pollub.backend.repository.movie.IMovieRepository;
+import pl.pollub.backend.util.export.IMovieExportWriter;
+import pl.pollub.backend.util.export.MovieExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+@Service
+public class MovieExportService implements IMovieExporter {
+    private final IMovieRepository movieRepository;
+
+    public MovieExportService(IMovieRepository movieRepository) {
+        this.movieRepository = movieRepository;
+    }
+
+    /**
+     * Writes the whole movie table to {@code output}, row by row from a database cursor.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportMovies(MovieExportFormat format, OutputStream output) throws IOException {
+        IMovieExportWriter writer = format.open(output);
+        try {
+            movieRepository.forEachMovieRow(writer);
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        } catch (DataAccessException ex) {
+            throw new DatabaseOperationException("Failed to export movies", ex);
+        }
+        writer.finish();
+    }
+}
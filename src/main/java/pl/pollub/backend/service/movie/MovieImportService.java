@@ -0,0 +1,198 @@
+package pl.pollub.backend.service.movie;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import pl.pollub.backend.dto.movie.MovieBatchErrorDto;
+import pl.pollub.backend.dto.movie.MovieBatchResultDto;
+import pl.pollub.backend.dto.movie.MovieDto;
+import pl.pollub.backend.dto.movie.MovieImportErrorDto;
+import pl.pollub.backend.dto.movie.MovieImportReportDto;
+import pl.pollub.backend.exception.DatabaseOperationException;
+import pl.pollub.backend.exception.InvalidDataException;
+import pl.pollub.backend.util.importer.IMovieRecordReader;
+import pl.pollub.backend.util.importer.MovieImportFormat;
+import pl.pollub.backend.util.importer.MovieRecord;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Imports movie files of any size. The calling thread parses the input one line at a time and
+ * hands records to a writer thread through a bounded queue, so parsing stalls whenever the
+ * database falls behind. The writer validates and commits the records in chunks through
+ * {@link IMovieWriter#saveMovies}. Memory use is bounded by the queue, the chunk size, the
+ * {@linkplain MovieImportFormat#MAX_LINE_LENGTH line length cap} and the number of failed rows kept
+ * for the report.
+ */
+@Service
+public class MovieImportService implements IMovieImporter, DisposableBean {
+    private static final MovieRecord END_OF_INPUT = MovieRecord.failed(-1, "end of input");
+    private static final long OFFER_TIMEOUT_MILLIS = 100;
+
+    private final IMovieWriter movieWriter;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService writerExecutor;
+    private final int chunkSize;
+    private final int queueCapacity;
+    private final int maxReportedFailures;
+    private final Map<String, ImportProgress> activeImports = new ConcurrentHashMap<>();
+
+    public MovieImportService(IMovieWriter movieWriter, ObjectMapper objectMapper,
+                              @Value("${movies.import.max-concurrent:2}") int maxConcurrent,
+                              @Value("${movies.import.chunk-size:500}") int chunkSize,
+                              @Value("${movies.import.queue-capacity:2000}") int queueCapacity,
+                              @Value("${movies.import.max-reported-failures:1000}") int maxReportedFailures) {
+        this.movieWriter = movieWriter;
+        this.objectMapper = objectMapper;
+        this.writerExecutor = Executors.newFixedThreadPool(Math.max(maxConcurrent, 1));
+        this.chunkSize = Math.max(chunkSize, 1);
+        this.queueCapacity = Math.max(queueCapacity, 1);
+        this.maxReportedFailures = Math.max(maxReportedFailures, 0);
+    }
+
+    @Override
+    public MovieImportReportDto importMovies(InputStream input, MovieImportFormat format) {
+        IMovieRecordReader reader;
+        try {
+            reader = format.open(input, objectMapper);
+        } catch (IOException ex) {
+            throw new InvalidDataException("Failed to read import data");
+        }
+
+        ImportProgress progress = new ImportProgress(UUID.randomUUID().toString(), maxReportedFailures);
+        activeImports.put(progress.id, progress);
+        BlockingQueue<MovieRecord> queue = new ArrayBlockingQueue<>(queueCapacity);
+        Future<?> writer = writerExecutor.submit(() -> {
+            writeChunks(queue, progress);
+            return null;
+        });
+        try {
+            MovieRecord record;
+            while ((record = reader.next()) != null) {
+                progress.rowsRead.incrementAndGet();
+                enqueue(queue, record, writer);
+            }
+            enqueue(queue, END_OF_INPUT, writer);
+            writer.get();
+            return progress.toReport(true);
+        } catch (IOException ex) {
+            throw new InvalidDataException("Failed to read import data");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new DatabaseOperationException("Import was interrupted", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new DatabaseOperationException("Failed to import movies", ex.getCause());
+        } finally {
+            // Whatever stopped the parser, a writer still waiting for records must not hold its thread.
+            writer.cancel(true);
+            activeImports.remove(progress.id);
+        }
+    }
+
+    @Override
+    public List<MovieImportReportDto> getActiveImports() {
+        return activeImports.values().stream()
+                .map(progress -> progress.toReport(false))
+                .toList();
+    }
+
+    @Override
+    public void destroy() {
+        writerExecutor.shutdownNow();
+    }
+
+    /**
+     * Blocks while the queue is full, giving up as soon as the writer has stopped so a failed
+     * write cannot leave the parser waiting forever.
+     */
+    private static void enqueue(BlockingQueue<MovieRecord> queue, MovieRecord record, Future<?> writer)
+            throws InterruptedException, ExecutionException {
+        while (!queue.offer(record, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+            if (writer.isDone()) {
+                writer.get();
+                throw new IllegalStateException("Import writer stopped before the end of input");
+            }
+        }
+    }
+
+    private void writeChunks(BlockingQueue<MovieRecord> queue, ImportProgress progress) throws InterruptedException {
+        List<MovieRecord> chunk = new ArrayList<>(chunkSize);
+        while (true) {
+            MovieRecord record = queue.take();
+            if (record == END_OF_INPUT) {
+                commit(chunk, progress);
+                return;
+            }
+            if (!record.isParsed()) {
+                progress.fail(record.row(), record.error());
+                continue;
+            }
+            chunk.add(record);
+            if (chunk.size() == chunkSize) {
+                commit(chunk, progress);
+                chunk.clear();
+            }
+        }
+    }
+
+    private void commit(List<MovieRecord> chunk, ImportProgress progress) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<MovieDto> movies = chunk.stream().map(MovieRecord::movie).toList();
+        MovieBatchResultDto result = movieWriter.saveMovies(movies);
+        progress.imported.addAndGet(result.getSaved().size());
+        for (MovieBatchErrorDto error : result.getErrors()) {
+            progress.fail(chunk.get(error.getIndex()).row(), error.getMessage());
+        }
+    }
+
+    private static class ImportProgress {
+        private final String id;
+        private final int maxReportedFailures;
+        private final AtomicLong rowsRead = new AtomicLong();
+        private final AtomicLong imported = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final List<MovieImportErrorDto> failedRows = new ArrayList<>();
+
+        private ImportProgress(String id, int maxReportedFailures) {
+            this.id = id;
+            this.maxReportedFailures = maxReportedFailures;
+        }
+
+        private void fail(long row, String message) {
+            failed.incrementAndGet();
+            synchronized (failedRows) {
+                if (failedRows.size() < maxReportedFailures) {
+                    failedRows.add(new MovieImportErrorDto(row, message));
+                }
+            }
+        }
+
+        private MovieImportReportDto toReport(boolean finished) {
+            List<MovieImportErrorDto> failures;
+            synchronized (failedRows) {
+                failures = List.copyOf(failedRows);
+            }
+            return new MovieImportReportDto(id, finished, rowsRead.get(), imported.get(), failed.get(), failures);
+        }
+    }
+}
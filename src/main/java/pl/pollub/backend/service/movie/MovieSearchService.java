@@ -0,0 +1,44 @@
+package pl.pollub.backend.service.movie;
+
+import org.springframework.stereotype.Service;
+import pl.pollub.backend.dto.movie.MovieSuggestionDto;
+import pl.pollub.backend.exception.InvalidDataException;
+import pl.pollub.backend.model.movie.Movie;
+import pl.pollub.backend.util.datasource.PrimaryReads;
+import pl.pollub.backend.util.search.TitleNormalizer;
+import pl.pollub.backend.util.search.TitleSearchIndex;
+import pl.pollub.backend.util.search.TitleSuggestionTrie;
+
+import java.util.List;
+
+@Service
+public class MovieSearchService implements IMovieSearch {
+    private final IMovieReader movieReader;
+    private final TitleSearchIndex titleSearchIndex;
+    private final TitleSuggestionTrie titleSuggestionTrie;
+
+    public MovieSearchService(IMovieReader movieReader, TitleSearchIndex titleSearchIndex,
+                              TitleSuggestionTrie titleSuggestionTrie) {
+        this.movieReader = movieReader;
+        this.titleSearchIndex = titleSearchIndex;
+        this.titleSuggestionTrie = titleSuggestionTrie;
+    }
+
+    @Override
+    public List<Movie> searchMovies(String query, int limit) {
+        if (query == null || TitleSearchIndex.tokenize(query).length == 0) {
+            throw new InvalidDataException("Search query cannot be empty");
+        }
+        titleSearchIndex.loadIfNeeded(() -> PrimaryReads.call(movieReader::getAllMovies));
+        return titleSearchIndex.search(query, limit);
+    }
+
+    @Override
+    public List<MovieSuggestionDto> suggestTitles(String prefix, int limit) {
+        if (prefix == null || TitleNormalizer.normalize(prefix).isEmpty()) {
+            throw new InvalidDataException("Suggestion prefix cannot be empty");
+        }
+        titleSuggestionTrie.loadIfNeeded(() -> PrimaryReads.call(movieReader::getAllMovies));
+        return titleSuggestionTrie.suggest(prefix, limit);
+    }
+}
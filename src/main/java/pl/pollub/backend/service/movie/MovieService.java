@@ -1,24 +1,83 @@
 package pl.pollub.backend.service.movie;
 
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import pl.pollub.backend.dto.movie.MovieBatchErrorDto;
+import pl.pollub.backend.dto.movie.MovieBatchResultDto;
+import pl.pollub.backend.dto.movie.MovieCacheStatsDto;
 import pl.pollub.backend.dto.movie.MovieDto;
 import pl.pollub.backend.exception.DatabaseOperationException;
 import pl.pollub.backend.exception.InvalidDataException;
 import pl.pollub.backend.exception.MovieNotFoundException;
+import pl.pollub.backend.exception.MovieVersionConflictException;
 import pl.pollub.backend.model.movie.Movie;
 import pl.pollub.backend.repository.movie.IMovieRepository;
+import pl.pollub.backend.util.cache.FilterResultCache;
+import pl.pollub.backend.util.cache.MovieCache;
+import pl.pollub.backend.util.catalog.CatalogVersion;
+import pl.pollub.backend.util.catalog.IMovieChangeListener;
+import pl.pollub.backend.util.catalog.MovieCatalog;
+import pl.pollub.backend.util.datasource.PrimaryReads;
 import pl.pollub.backend.util.filter.Filter;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
+@Timed(value = "movies.service", histogram = true)
 public class MovieService implements IMovieReader, IMovieWriter, IMovieFilter {
+    /** Length of the title and genre name columns. */
+    private static final int MAX_TEXT_LENGTH = 255;
 
     private final IMovieRepository movieRepository;
+    private final MovieCatalog movieCatalog;
+    private final MovieCache movieCache;
+    private final FilterResultCache filterResultCache;
+    private final List<IMovieChangeListener> changeListeners;
+    private final GenreService genreService;
+    /**
+     * This service behind its proxy, for internal reads that need their own read-only transaction
+     * and timer.
+     */
+    private final IMovieReader transactionalReader;
+    private final TransactionTemplate transactionTemplate;
+    private final DistributionSummary filterResults;
+    private final DistributionSummary pagedFilterResults;
 
-    public MovieService(IMovieRepository movieRepository) {
+    public MovieService(IMovieRepository movieRepository, MovieCatalog movieCatalog, MovieCache movieCache,
+                        FilterResultCache filterResultCache, List<IMovieChangeListener> changeListeners,
+                        GenreService genreService, @Lazy IMovieReader transactionalReader,
+                        PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.transactionalReader = transactionalReader;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.filterResults = filterResultSummary(meterRegistry, false);
+        this.pagedFilterResults = filterResultSummary(meterRegistry, true);
         this.movieRepository = movieRepository;
+        this.genreService = genreService;
+        this.movieCatalog = movieCatalog;
+        this.movieCache = movieCache;
+        this.filterResultCache = filterResultCache;
+        this.changeListeners = changeListeners;
     }
 
     @Override
@@ -26,13 +85,87 @@ public class MovieService implements IMovieReader, IMovieWriter, IMovieFilter {
         validateMovieData(movieDto);
         Movie movie = convertToEntity(movieDto);
         try {
-            return movieRepository.save(movie);
+            Movie savedMovie = movieRepository.save(movie);
+            notifySaved(savedMovie);
+            return savedMovie;
         } catch (DataAccessException ex) {
             throw new DatabaseOperationException("Failed to save movie", ex);
         }
     }
 
+    /**
+     * Saves every valid movie of the batch in one transaction; ids come from the pooled sequence,
+     * so the inserts are sent as JDBC batches. Invalid items are reported by their position and do
+     * not prevent the others from being saved. If the database still rejects a row, the whole
+     * transaction rolls back and the items are saved again one transaction each, so only the
+     * rejected ones are reported.
+     */
     @Override
+    public MovieBatchResultDto saveMovies(List<MovieDto> movieDtos) {
+        List<Integer> positions = new ArrayList<>(movieDtos.size());
+        List<MovieBatchErrorDto> errors = new ArrayList<>();
+        for (int i = 0; i < movieDtos.size(); i++) {
+            MovieDto movieDto = movieDtos.get(i);
+            try {
+                if (movieDto == null) {
+                    throw new InvalidDataException("Movie cannot be null");
+                }
+                validateMovieData(movieDto);
+                positions.add(i);
+            } catch (InvalidDataException ex) {
+                errors.add(new MovieBatchErrorDto(i, ex.getMessage()));
+            }
+        }
+        try {
+            List<MovieDto> valid = positions.stream().map(movieDtos::get).toList();
+            return new MovieBatchResultDto(saveInTransaction(valid), errors);
+        } catch (DataAccessException | DatabaseOperationException ex) {
+            if (positions.size() == 1 || !rejectedRow(ex)) {
+                throw new DatabaseOperationException("Failed to save movies", ex);
+            }
+        }
+        List<Movie> savedMovies = new ArrayList<>(positions.size());
+        for (int position : positions) {
+            try {
+                savedMovies.addAll(saveInTransaction(List.of(movieDtos.get(position))));
+            } catch (DataAccessException | DatabaseOperationException ex) {
+                if (!rejectedRow(ex)) {
+                    throw new DatabaseOperationException("Failed to save movies", ex);
+                }
+                errors.add(new MovieBatchErrorDto(position, "Movie was rejected by the database"));
+            }
+        }
+        errors.sort(Comparator.comparingInt(MovieBatchErrorDto::getIndex));
+        return new MovieBatchResultDto(savedMovies, errors);
+    }
+
+    /**
+     * Entities are built inside the transaction, so a retry never sees ids or versions assigned by
+     * one that rolled back.
+     */
+    private List<Movie> saveInTransaction(List<MovieDto> movieDtos) {
+        return transactionTemplate.execute(status -> {
+            List<Movie> savedMovies = movieRepository.saveAllAndFlush(
+                    movieDtos.stream().map(this::convertToEntity).toList());
+            savedMovies.forEach(this::notifySaved);
+            return savedMovies;
+        });
+    }
+
+    /**
+     * Whether the database refused the data itself, as opposed to failing for every row alike.
+     */
+    private static boolean rejectedRow(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DataIntegrityViolationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<Movie> getAllMovies() {
         try {
             return movieRepository.findAll();
@@ -41,40 +174,153 @@ public class MovieService implements IMovieReader, IMovieWriter, IMovieFilter {
         }
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllMovies(Consumer<Movie> consumer) {
+        try {
+            movieRepository.forEachMovie(consumer);
+        } catch (DataAccessException ex) {
+            throw new DatabaseOperationException("Failed to stream movies", ex);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Movie> getMoviesAfter(Long afterId, int limit) {
+        try {
+            return movieRepository.findByIdGreaterThanOrderByIdAsc(
+                    afterId == null ? Long.MIN_VALUE : afterId, Limit.of(limit));
+        } catch (DataAccessException ex) {
+            throw new DatabaseOperationException("Failed to retrieve movies", ex);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Movie> getMoviesByReleaseDateAfter(LocalDate afterDate, Long afterId, int limit) {
+        try {
+            List<Movie> movies = new ArrayList<>();
+            if (afterId == null) {
+                movies.addAll(movieRepository.findByReleaseDateNotNullOrderByReleaseDateAscIdAsc(Limit.of(limit)));
+            } else if (afterDate != null) {
+                movies.addAll(movieRepository.findByReleaseDateAndIdAfter(afterDate, afterId, limit));
+            }
+            if (movies.size() < limit) {
+                long afterUndatedId = afterId != null && afterDate == null ? afterId : Long.MIN_VALUE;
+                movies.addAll(movieRepository.findByReleaseDateIsNullAndIdGreaterThanOrderByIdAsc(
+                        afterUndatedId, Limit.of(limit - movies.size())));
+            }
+            return movies;
+        } catch (DataAccessException ex) {
+            throw new DatabaseOperationException("Failed to retrieve movies", ex);
+        }
+    }
+
     @Override
     public Movie getMovieById(Long id) {
         try {
-            return movieRepository.findById(id)
+            return movieCache.get(id, key -> PrimaryReads.call(() -> movieRepository.findById(key)))
                     .orElseThrow(() -> new MovieNotFoundException(id));
         } catch (DataAccessException ex) {
             throw new DatabaseOperationException("Failed to retrieve movie", ex);
         }
     }
 
+    /**
+     * Answers from the catalog when it holds the movie. Otherwise only the version column is read,
+     * from the primary for the same reason as {@link #getMovieById}.
+     */
     @Override
-    public Movie updateMovie(Long id, MovieDto movieDto) {
-        Movie movie = movieRepository.findById(id)
-                .orElseThrow(() -> new MovieNotFoundException(id));
-        updateMovieFields(movie, movieDto);
+    public Optional<Long> getMovieVersion(Long id) {
+        Optional<Long> version = movieCatalog.versionOf(id);
+        if (version.isPresent()) {
+            return version;
+        }
         try {
-            return movieRepository.save(movie);
+            return PrimaryReads.call(() -> movieRepository.findVersionById(id));
         } catch (DataAccessException ex) {
-            throw new DatabaseOperationException("Failed to update movie", ex);
+            throw new DatabaseOperationException("Failed to retrieve movie version", ex);
         }
     }
 
     @Override
-    public void deleteMovie(Long id) {
-        if (!movieRepository.existsById(id)) {
-            throw new MovieNotFoundException(id);
+    public MovieCacheStatsDto getCacheStats() {
+        return movieCache.getStats();
+    }
+
+    @Override
+    public CatalogVersion getCatalogVersion() {
+        return movieCatalog.currentVersion();
+    }
+
+    /**
+     * Applies the non-null fields of {@code movieDto} in a single conditional statement. With an
+     * {@code expectedVersion} the update only happens if the movie still has that version. A genre
+     * created for the update shares its transaction, so it is rolled back if no movie is updated.
+     */
+    @Override
+    @Transactional
+    public Movie updateMovie(Long id, MovieDto movieDto, Long expectedVersion) {
+        validateMovieUpdate(movieDto);
+        Integer genreId = movieDto.getGenre() == null ? null : genreService.resolve(movieDto.getGenre()).getId();
+        try {
+            Movie updatedMovie = movieRepository.updateMovie(id, expectedVersion, movieDto.getTitle(), genreId,
+                            movieDto.getReleaseDate(), Instant.now().truncatedTo(ChronoUnit.MICROS))
+                    .orElseThrow(() -> missingOrModified(id, expectedVersion));
+            notifySaved(updatedMovie);
+            return updatedMovie;
+        } catch (DataAccessException ex) {
+            throw new DatabaseOperationException("Failed to update movie", ex);
         }
+    }
+
+    @Override
+    public void deleteMovie(Long id, Long expectedVersion) {
         try {
-            movieRepository.deleteById(id);
+            int deleted = expectedVersion == null
+                    ? movieRepository.deleteMovieById(id)
+                    : movieRepository.deleteMovieByIdAndVersion(id, expectedVersion);
+            if (deleted == 0) {
+                throw missingOrModified(id, expectedVersion);
+            }
+            notifyDeleted(id);
         } catch (DataAccessException ex) {
             throw new DatabaseOperationException("Failed to delete movie", ex);
         }
     }
 
+    /**
+     * Tells apart why a conditional write matched no row. Only runs after a failed write, so
+     * successful writes stay a single statement.
+     */
+    private RuntimeException missingOrModified(Long id, Long expectedVersion) {
+        if (expectedVersion != null && movieRepository.existsById(id)) {
+            return new MovieVersionConflictException(id);
+        }
+        return new MovieNotFoundException(id);
+    }
+
+    private void notifySaved(Movie movie) {
+        afterCommit(() -> changeListeners.forEach(listener -> listener.movieSaved(movie)));
+    }
+
+    private void notifyDeleted(Long id) {
+        afterCommit(() -> changeListeners.forEach(listener -> listener.movieDeleted(id)));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
     private Movie convertToEntity(MovieDto movieDto) {
         return Movie.builder()
                 .title(movieDto.getTitle())
@@ -83,22 +329,14 @@ public class MovieService implements IMovieReader, IMovieWriter, IMovieFilter {
                 .build();
     }
 
-    private void updateMovieFields(Movie movie, MovieDto movieDto) {
-        if (movieDto.getTitle() != null) {
-            if(movieDto.getTitle().isEmpty()){
-                throw new InvalidDataException("Title cannot be empty");
-            }
-            movie.setTitle(movieDto.getTitle());
+    private void validateMovieUpdate(MovieDto movieDto) {
+        if (movieDto.getTitle() != null && movieDto.getTitle().isEmpty()) {
+            throw new InvalidDataException("Title cannot be empty");
         }
-        if (movieDto.getGenre() != null) {
-            if(movieDto.getGenre().isEmpty()){
-                throw new InvalidDataException("Genre cannot be empty");
-            }
-            movie.setGenre(movieDto.getGenre());
-        }
-        if (movieDto.getReleaseDate() != null) {
-            movie.setReleaseDate(movieDto.getReleaseDate());
+        if (movieDto.getGenre() != null && movieDto.getGenre().isEmpty()) {
+            throw new InvalidDataException("Genre cannot be empty");
         }
+        validateLengths(movieDto);
     }
 
 
@@ -112,16 +350,102 @@ public class MovieService implements IMovieReader, IMovieWriter, IMovieFilter {
         if (movieDto.getReleaseDate() == null) {
             throw new InvalidDataException("Release date cannot be null");
         }
+        validateLengths(movieDto);
+    }
+
+    private void validateLengths(MovieDto movieDto) {
+        if (movieDto.getTitle() != null && movieDto.getTitle().length() > MAX_TEXT_LENGTH) {
+            throw new InvalidDataException("Title cannot be longer than " + MAX_TEXT_LENGTH + " characters");
+        }
+        if (movieDto.getGenre() != null && movieDto.getGenre().trim().length() > MAX_TEXT_LENGTH) {
+            throw new InvalidDataException("Genre cannot be longer than " + MAX_TEXT_LENGTH + " characters");
+        }
     }
 
     @Override
     public Movie[] filterMovies(Filter filter) {
-        List<Movie> movies = getAllMovies();
+        long version = movieCatalog.getVersion();
+        Movie[] movies = filter.cacheKey()
+                .map(key -> filterResultCache.get(key, version, () -> PrimaryReads.call(() -> computeFilter(filter))))
+                .orElseGet(() -> computeFilter(filter));
+        filterResults.record(movies.length);
+        return movies;
+    }
+
+    @Override
+    public Movie[] filterMovies(Filter filter, Long afterId, int limit) {
+        long after = afterId == null ? Long.MIN_VALUE : afterId;
+        long version = movieCatalog.getVersion();
+        Movie[] movies = filter.cacheKey()
+                .map(key -> filterResultCache.get(key + "|after=" + after + "|limit=" + limit, version,
+                        () -> PrimaryReads.call(() -> computeFilter(filter, after, limit))))
+                .orElseGet(() -> computeFilter(filter, after, limit));
+        pagedFilterResults.record(movies.length);
+        return movies;
+    }
+
+    private static DistributionSummary filterResultSummary(MeterRegistry meterRegistry, boolean paged) {
+        return DistributionSummary.builder("movies.filter.results")
+                .description("Number of movies returned by a filter")
+                .baseUnit("movies")
+                .tag("paged", String.valueOf(paged))
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private Movie[] computeFilter(Filter filter) {
+        movieCatalog.loadIfNeeded(() -> PrimaryReads.call(transactionalReader::getAllMovies));
+        Filter plannedFilter = filter.plan(movieCatalog);
+        Optional<Movie[]> indexed = movieCatalog.query(plannedFilter);
+        if (indexed.isPresent()) {
+            return indexed.get();
+        }
+
+        Optional<Specification<Movie>> specification = plannedFilter.toSpecification();
+        if (specification.isPresent()) {
+            try {
+                return movieRepository.findAll(specification.get()).toArray(new Movie[0]);
+            } catch (DataAccessException ex) {
+                throw new DatabaseOperationException("Failed to filter movies", ex);
+            }
+        }
+
+        return scanMovies(plannedFilter);
+    }
+
+    private Movie[] computeFilter(Filter filter, long after, int limit) {
+        movieCatalog.loadIfNeeded(() -> PrimaryReads.call(transactionalReader::getAllMovies));
+        Filter plannedFilter = filter.plan(movieCatalog);
+        Optional<Movie[]> indexed = movieCatalog.query(plannedFilter, after, limit);
+        if (indexed.isPresent()) {
+            return indexed.get();
+        }
+
+        Optional<Specification<Movie>> specification = plannedFilter.toSpecification();
+        if (specification.isPresent()) {
+            Specification<Movie> afterCursor = (root, query, cb) -> cb.greaterThan(root.get("id"), after);
+            try {
+                return movieRepository.findBy(specification.get().and(afterCursor),
+                                query -> query.sortBy(Sort.by("id")).limit(limit).all())
+                        .toArray(new Movie[0]);
+            } catch (DataAccessException ex) {
+                throw new DatabaseOperationException("Failed to filter movies", ex);
+            }
+        }
+
+        return Arrays.stream(scanMovies(plannedFilter))
+                .filter(movie -> movie.getId() > after)
+                .sorted(Comparator.comparing(Movie::getId))
+                .limit(limit)
+                .toArray(Movie[]::new);
+    }
+
+    private Movie[] scanMovies(Filter filter) {
+        List<Movie> movies = transactionalReader.getAllMovies();
         try {
             return filter.filter(movies.toArray(new Movie[0]));
         } catch (Exception ex) {
             throw new DatabaseOperationException("Error occurred during filtering", ex);
         }
     }
-
 }
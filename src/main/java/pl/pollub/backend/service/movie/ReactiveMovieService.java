@@ -0,0 +1,76 @@
+package pl.pollub.backend.service.movie;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import pl.pollub.backend.exception.DatabaseOperationException;
+import pl.pollub.backend.exception.MovieNotFoundException;
+import pl.pollub.backend.model.movie.Movie;
+import pl.pollub.backend.repository.movie.ReactiveMovieRepository;
+import pl.pollub.backend.util.catalog.CatalogVersion;
+import pl.pollub.backend.util.catalog.MovieCatalog;
+import pl.pollub.backend.util.filter.Filter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Arrays;
+
+/**
+ * Reactive counterpart of {@link MovieService} for the read side. Listings and lookups go to the
+ * database through R2DBC. Filters are answered by the in-memory catalog behind {@link IMovieFilter};
+ * that call runs on the bounded elastic scheduler because the first one may load the catalog over JDBC.
+ */
+@Service
+public class ReactiveMovieService implements IReactiveMovieReader, IReactiveMovieFilter {
+    private final ReactiveMovieRepository movieRepository;
+    private final IMovieFilter movieFilter;
+    private final MovieCatalog movieCatalog;
+
+    public ReactiveMovieService(ReactiveMovieRepository movieRepository, IMovieFilter movieFilter,
+                                MovieCatalog movieCatalog) {
+        this.movieRepository = movieRepository;
+        this.movieFilter = movieFilter;
+        this.movieCatalog = movieCatalog;
+    }
+
+    @Override
+    public Flux<Movie> getAllMovies() {
+        return movieRepository.findAll()
+                .onErrorMap(DataAccessException.class,
+                        ex -> new DatabaseOperationException("Failed to retrieve movies", ex));
+    }
+
+    @Override
+    public Mono<Movie> getMovieById(Long id) {
+        return movieRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new MovieNotFoundException(id)))
+                .onErrorMap(DataAccessException.class,
+                        ex -> new DatabaseOperationException("Failed to retrieve movie", ex));
+    }
+
+    @Override
+    public Flux<Movie> getMoviesAfter(Long afterId, int limit) {
+        return movieRepository.findAfter(afterId == null ? Long.MIN_VALUE : afterId, limit)
+                .onErrorMap(DataAccessException.class,
+                        ex -> new DatabaseOperationException("Failed to retrieve movies", ex));
+    }
+
+    @Override
+    public CatalogVersion getCatalogVersion() {
+        return movieCatalog.currentVersion();
+    }
+
+    @Override
+    public Flux<Movie> filterMovies(Filter filter) {
+        return Mono.fromCallable(() -> movieFilter.filterMovies(filter))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapIterable(Arrays::asList);
+    }
+
+    @Override
+    public Flux<Movie> filterMovies(Filter filter, Long afterId, int limit) {
+        return Mono.fromCallable(() -> movieFilter.filterMovies(filter, afterId, limit))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapIterable(Arrays::asList);
+    }
+}
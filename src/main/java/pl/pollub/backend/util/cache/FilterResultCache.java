@@ -0,0 +1,48 @@
+package pl.pollub.backend.util.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import pl.pollub.backend.model.movie.Movie;
+
+import java.util.function.Supplier;
+
+/**
+ * Results of filter queries keyed by {@link pl.pollub.backend.util.filter.Filter#cacheKey()}.
+ * Every entry records the catalog version it was computed at and is only served while that version
+ * is current, so writes never have to find and evict the entries they affect.
+ */
+@Component
+public class FilterResultCache {
+    private final Cache<String, VersionedResult> results;
+
+    public FilterResultCache(@Value("${movies.filter.cache.maximum-size:1000}") long maximumSize) {
+        this.results = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    /**
+     * Returns the result cached for {@code key} at {@code version}, computing and caching it on a
+     * miss. {@code version} must be read before computing, so a write racing with the computation
+     * leaves behind an entry that is already outdated rather than a stale one.
+     */
+    public Movie[] get(String key, long version, Supplier<Movie[]> loader) {
+        VersionedResult cached = results.getIfPresent(key);
+        if (cached != null && cached.version() == version) {
+            return cached.movies().clone();
+        }
+        Movie[] movies = loader.get();
+        results.asMap().merge(key, new VersionedResult(version, movies),
+                (existing, computed) -> existing.version() > computed.version() ? existing : computed);
+        return movies.clone();
+    }
+
+    public void invalidateAll() {
+        results.invalidateAll();
+    }
+
+    private record VersionedResult(long version, Movie[] movies) {
+    }
+}
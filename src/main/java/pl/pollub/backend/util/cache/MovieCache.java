@@ -0,0 +1,99 @@
+package pl.pollub.backend.util.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import pl.pollub.backend.dto.movie.MovieCacheStatsDto;
+import pl.pollub.backend.model.movie.Movie;
+import pl.pollub.backend.util.catalog.IMovieChangeListener;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Bounded near-cache of movies by id. Eviction uses Caffeine's W-TinyLFU policy, so a burst of
+ * one-off lookups cannot push out frequently requested titles, and concurrent misses for the
+ * same id share a single load. Loads run on the caller's thread outside any map lock, so a
+ * virtual thread waiting on the database does not pin its carrier. Callers get their own copy of
+ * the cached movie.
+ */
+@Component
+public class MovieCache implements IMovieChangeListener {
+    private final AsyncCache<Long, Movie> movies;
+
+    public MovieCache(@Value("${movies.cache.maximum-size:10000}") long maximumSize) {
+        this.movies = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .buildAsync();
+    }
+
+    /**
+     * Returns the movie with {@code id}, calling {@code loader} on a miss. Absent movies are not
+     * cached, and exceptions thrown by the loader reach the caller unchanged.
+     */
+    public Optional<Movie> get(Long id, Function<Long, Optional<Movie>> loader) {
+        CompletableFuture<Movie> pending = new CompletableFuture<>();
+        CompletableFuture<Movie> future = movies.get(id, (key, executor) -> pending);
+        if (future == pending) {
+            try {
+                pending.complete(loader.apply(id).orElse(null));
+            } catch (RuntimeException ex) {
+                pending.completeExceptionally(ex);
+                throw ex;
+            }
+        }
+        try {
+            return Optional.ofNullable(future.join()).map(MovieCache::copyOf);
+        } catch (CompletionException ex) {
+            throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+        }
+    }
+
+    public void invalidate(Long id) {
+        movies.synchronous().invalidate(id);
+    }
+
+    public void invalidateAll() {
+        movies.synchronous().invalidateAll();
+    }
+
+    public MovieCacheStatsDto getStats() {
+        CacheStats stats = movies.synchronous().stats();
+        return MovieCacheStatsDto.builder()
+                .size(movies.synchronous().estimatedSize())
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .hitRatio(stats.hitRate())
+                .evictionCount(stats.evictionCount())
+                .build();
+    }
+
+    @Override
+    public void movieSaved(Movie movie) {
+        if (movie.getId() != null) {
+            invalidate(movie.getId());
+        }
+    }
+
+    @Override
+    public void movieDeleted(Long id) {
+        invalidate(id);
+    }
+
+    private static Movie copyOf(Movie movie) {
+        return Movie.builder()
+                .id(movie.getId())
+                .title(movie.getTitle())
+                .genre(movie.getGenre())
+                .releaseDate(movie.getReleaseDate())
+                .releaseYear(movie.getReleaseYear())
+                .updatedAt(movie.getUpdatedAt())
+                .version(movie.getVersion())
+                .build();
+    }
+}
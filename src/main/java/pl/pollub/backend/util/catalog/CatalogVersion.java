@@ -0,0 +1,10 @@
+package pl.pollub.backend.util.catalog;
+
+import java.time.Instant;
+
+/**
+ * Validator of everything derived from the movie table: {@code tag} changes on every write and
+ * differs between application runs, {@code lastModified} is the time of the last change.
+ */
+public record CatalogVersion(String tag, Instant lastModified) {
+}
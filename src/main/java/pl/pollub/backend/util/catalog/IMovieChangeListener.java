@@ -0,0 +1,22 @@
+package pl.pollub.backend.util.catalog;
+
+import pl.pollub.backend.model.movie.Movie;
+
+/**
+ * Notified by the movie service after a write to the movie table has been committed. Callbacks for
+ * the same movie may arrive in a different order than their commits, so listeners keeping a copy of
+ * the row should drop saves that are {@link #isOutdated older} than the copy they already hold.
+ */
+public interface IMovieChangeListener {
+    void movieSaved(Movie movie);
+
+    void movieDeleted(Long id);
+
+    /**
+     * Returns whether {@code movie} carries an older version than {@code heldVersion}. Unknown
+     * versions on either side never count as outdated.
+     */
+    static boolean isOutdated(Movie movie, Long heldVersion) {
+        return movie.getVersion() != null && heldVersion != null && movie.getVersion() < heldVersion;
+    }
+}
@@ -0,0 +1,210 @@
+package pl.pollub.backend.util.catalog;
+
+import org.springframework.stereotype.Component;
+import pl.pollub.backend.dto.movie.MovieAggregatesDto;
+import pl.pollub.backend.model.movie.Movie;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Movie counts per genre, release year and release month, patched on every committed write.
+ * Counters are {@link LongAdder}s so concurrent writers only contend on the movie they change; the
+ * last bucket of every movie is remembered, which makes updates a move between buckets and
+ * repeated notifications harmless. A full rebuild replaces all counters to correct any drift; it
+ * counts without blocking writers and only locks them out to replay what they did meanwhile.
+ */
+@Component
+public class MovieAggregates implements IMovieChangeListener {
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock rebuildLock = new ReentrantLock();
+    private volatile Counters counters = new Counters();
+    /**
+     * Changes made while a rebuild reads its source, or {@code null} when none is running.
+     */
+    private volatile Queue<Change> changesDuringRebuild;
+    private volatile boolean loaded;
+    private volatile Instant recomputedAt;
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public void loadIfNeeded(Consumer<Consumer<Movie>> source) {
+        if (loaded) {
+            return;
+        }
+        rebuildLock.lock();
+        try {
+            if (!loaded) {
+                recount(source);
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Recounts everything from {@code source}. Changes reported while the source is read are
+     * recorded and replayed onto the new counters before they replace the current ones; since a
+     * change moves a movie to its latest bucket, replaying one the source already saw is harmless.
+     */
+    public void rebuild(Consumer<Consumer<Movie>> source) {
+        rebuildLock.lock();
+        try {
+            recount(source);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    public void invalidate() {
+        lock.writeLock().lock();
+        try {
+            counters = new Counters();
+            loaded = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void movieSaved(Movie movie) {
+        if (movie.getId() != null) {
+            apply(movie.getId(), Bucket.of(movie));
+        }
+    }
+
+    @Override
+    public void movieDeleted(Long id) {
+        apply(id, null);
+    }
+
+    /**
+     * Current counts, in O(number of buckets). Empty buckets are left out.
+     */
+    public MovieAggregatesDto snapshot() {
+        Counters current = counters;
+        Map<String, Long> byMonth = new TreeMap<>();
+        sums(current.byMonth).forEach((month, count) -> byMonth.put(month.toString(), count));
+        return MovieAggregatesDto.builder()
+                .total(current.total.sum())
+                .byGenre(sums(current.byGenre))
+                .byYear(sums(current.byYear))
+                .byMonth(byMonth)
+                .recomputedAt(recomputedAt)
+                .build();
+    }
+
+    private void recount(Consumer<Consumer<Movie>> source) {
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new ConcurrentLinkedQueue<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Counters rebuilt = new Counters();
+        try {
+            source.accept(movie -> rebuilt.apply(movie.getId(), Bucket.of(movie)));
+        } catch (RuntimeException ex) {
+            changesDuringRebuild = null;
+            throw ex;
+        }
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild.forEach(change -> rebuilt.apply(change.id(), change.bucket()));
+            changesDuringRebuild = null;
+            counters = rebuilt;
+            recomputedAt = Instant.now();
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(Long id, Bucket bucket) {
+        lock.readLock().lock();
+        try {
+            if (loaded) {
+                counters.apply(id, bucket);
+            }
+            Queue<Change> changes = changesDuringRebuild;
+            if (changes != null) {
+                changes.add(new Change(id, bucket));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static <K extends Comparable<K>> Map<K, Long> sums(Map<K, LongAdder> counters) {
+        Map<K, Long> sums = new TreeMap<>();
+        counters.forEach((key, counter) -> {
+            long sum = counter.sum();
+            if (sum != 0) {
+                sums.put(key, sum);
+            }
+        });
+        return sums;
+    }
+
+    private record Change(Long id, Bucket bucket) {
+    }
+
+    private record Bucket(String genre, YearMonth month) {
+        private static Bucket of(Movie movie) {
+            YearMonth month = movie.getReleaseDate() == null ? null : YearMonth.from(movie.getReleaseDate());
+            return new Bucket(movie.getGenre(), month);
+        }
+    }
+
+    private static final class Counters {
+        private final Map<Long, Bucket> bucketsById = new ConcurrentHashMap<>();
+        private final LongAdder total = new LongAdder();
+        private final Map<String, LongAdder> byGenre = new ConcurrentHashMap<>();
+        private final Map<Integer, LongAdder> byYear = new ConcurrentHashMap<>();
+        private final Map<YearMonth, LongAdder> byMonth = new ConcurrentHashMap<>();
+
+        /**
+         * Moves {@code id} from its previous bucket to {@code next}; a {@code null} bucket removes it.
+         */
+        private void apply(Long id, Bucket next) {
+            bucketsById.compute(id, (key, previous) -> {
+                if (previous != null) {
+                    add(previous, -1);
+                }
+                if (next != null) {
+                    add(next, 1);
+                }
+                return next;
+            });
+        }
+
+        private void add(Bucket bucket, int delta) {
+            total.add(delta);
+            if (bucket.genre() != null) {
+                counter(byGenre, bucket.genre()).add(delta);
+            }
+            if (bucket.month() != null) {
+                counter(byYear, bucket.month().getYear()).add(delta);
+                counter(byMonth, bucket.month()).add(delta);
+            }
+        }
+
+        private static <K> LongAdder counter(Map<K, LongAdder> counters, K key) {
+            LongAdder counter = counters.get(key);
+            return counter != null ? counter : counters.computeIfAbsent(key, ignored -> new LongAdder());
+        }
+    }
+}
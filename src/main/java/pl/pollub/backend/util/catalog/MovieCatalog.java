@@ -0,0 +1,600 @@
+package pl.pollub.backend.util.catalog;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import pl.pollub.backend.model.movie.Movie;
+import pl.pollub.backend.util.filter.Filter;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * In-memory columnar copy of the movie table. Every movie occupies one row slot; genre is
+ * dictionary-encoded and release dates are kept as primitive year / epoch-day columns, with
+ * bitmap indexes per genre (case-insensitive) and per release year, and a sorted epoch-day index
+ * for date ranges. Filters without an index are answered by scanning the rows, in parallel on a
+ * dedicated fork/join pool once the catalog holds at least {@code movies.catalog.parallel-scan-threshold}
+ * rows.
+ */
+@Component
+public class MovieCatalog implements IMovieChangeListener, DisposableBean {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int SCAN_CHUNK_ROWS = 4096;
+
+    private final boolean enabled;
+    private final ForkJoinPool scanPool;
+    private final int parallelScanThreshold;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private String[] titles = new String[INITIAL_CAPACITY];
+    private int[] genreCodes = new int[INITIAL_CAPACITY];
+    private int[] releaseYears = new int[INITIAL_CAPACITY];
+    private int[] releaseEpochDays = new int[INITIAL_CAPACITY];
+    private long[] versions = new long[INITIAL_CAPACITY];
+    private int rowCount;
+
+    private final BitSet liveRows = new BitSet();
+    private final Deque<Integer> freeRows = new ArrayDeque<>();
+    private final Map<Long, Integer> rowsById = new HashMap<>();
+
+    private final List<String> genreDictionary = new ArrayList<>();
+    private final Map<String, Integer> genreCodesByValue = new HashMap<>();
+
+    private final Map<String, BitSet> rowsByGenre = new HashMap<>();
+    private final Map<Integer, BitSet> rowsByYear = new HashMap<>();
+
+    /**
+     * Rows with a release date ordered by (epoch day, row); {@code releaseIndexDays[i]} is the day of
+     * {@code releaseIndexRows[i]}. Kept sorted on every write so ranges resolve by binary search.
+     */
+    private int[] releaseIndexDays = new int[INITIAL_CAPACITY];
+    private int[] releaseIndexRows = new int[INITIAL_CAPACITY];
+    private int releaseIndexSize;
+
+    private boolean loaded;
+    private final AtomicLong version = new AtomicLong();
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    private volatile CatalogVersion currentVersion = new CatalogVersion(epoch + "-0", Instant.now());
+
+    public MovieCatalog(@Value("${movies.catalog.enabled:true}") boolean enabled,
+                        @Value("${movies.catalog.scan-parallelism:0}") int scanParallelism,
+                        @Value("${movies.catalog.parallel-scan-threshold:65536}") int parallelScanThreshold) {
+        this.enabled = enabled;
+        this.scanPool = new ForkJoinPool(scanParallelism > 0 ? scanParallelism : Runtime.getRuntime().availableProcessors());
+        this.parallelScanThreshold = Math.max(parallelScanThreshold, 1);
+    }
+
+    /**
+     * Monotonic counter bumped on every write and invalidation, whether or not the catalog is
+     * loaded. It moves only once the change is visible to readers, so a result computed after reading
+     * a version reflects at least that version. Anything derived from the movie table is current as
+     * long as the version is unchanged.
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * The current {@link #getVersion() version} qualified by the start of this run, so tags handed
+     * out before a restart never match again.
+     */
+    public CatalogVersion currentVersion() {
+        return currentVersion;
+    }
+
+    public boolean isLoaded() {
+        lock.readLock().lock();
+        try {
+            return loaded;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the version of the movie with the given id without materializing it, or empty when
+     * the catalog is not loaded, holds no such movie, or has no version for it.
+     */
+    public Optional<Long> versionOf(Long id) {
+        lock.readLock().lock();
+        try {
+            Integer row = loaded ? rowsById.get(id) : null;
+            return row == null ? Optional.empty() : Optional.ofNullable(versionAt(row));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Loads the catalog from {@code source} unless it is already loaded. The source is read while
+     * holding the write lock, so writes that complete concurrently are applied on top of the snapshot.
+     */
+    public void loadIfNeeded(Supplier<? extends Collection<Movie>> source) {
+        if (!enabled || isLoaded()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (loaded) {
+                return;
+            }
+            clear();
+            for (Movie movie : source.get()) {
+                insert(movie);
+            }
+            rebuildReleaseIndex();
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void invalidate() {
+        lock.writeLock().lock();
+        try {
+            clear();
+            loaded = false;
+        } finally {
+            bumpVersion();
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void put(Movie movie) {
+        if (movie == null || movie.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                return;
+            }
+            Integer row = rowsById.get(movie.getId());
+            if (row != null) {
+                if (IMovieChangeListener.isOutdated(movie, versionAt(row))) {
+                    return;
+                }
+                release(row);
+            }
+            insert(movie);
+        } finally {
+            bumpVersion();
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                return;
+            }
+            Integer row = rowsById.get(id);
+            if (row != null) {
+                release(row);
+            }
+        } finally {
+            bumpVersion();
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void movieSaved(Movie movie) {
+        put(movie);
+    }
+
+    @Override
+    public void movieDeleted(Long id) {
+        remove(id);
+    }
+
+    @Override
+    public void destroy() {
+        scanPool.shutdown();
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return rowsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Answers {@code filter} from the bitmap indexes, or by scanning the rows for filters without
+     * one. Returns empty when the catalog is not loaded.
+     */
+    public Optional<Movie[]> query(Filter filter) {
+        lock.readLock().lock();
+        try {
+            if (!loaded) {
+                return Optional.empty();
+            }
+            return filter.select(this).map(this::materialize);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns at most {@code limit} matches with an id greater than {@code afterId}, in id order.
+     * Only the rows of the requested page are materialized, whatever its depth.
+     */
+    public Optional<Movie[]> query(Filter filter, long afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            if (!loaded) {
+                return Optional.empty();
+            }
+            return filter.select(this).map(rows -> materialize(pageRows(rows, afterId, limit)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rows accepted by {@link Filter#filter}, for filters without an index; the caller holds the
+     * read lock. Rows are materialized and tested in chunks, which run on the scan pool once there
+     * are enough of them to outweigh the fork/join overhead, and map back to rows through their ids.
+     */
+    public BitSet scan(Filter filter) {
+        if (rowCount < parallelScanThreshold || scanPool.getParallelism() == 1) {
+            return scanRows(filter, 0, rowCount);
+        }
+        return scanPool.invoke(new ScanTask(filter, 0, rowCount));
+    }
+
+    public BitSet rowsWithGenre(String genre) {
+        BitSet rows = rowsByGenre.get(genreKey(genre));
+        return rows == null ? new BitSet() : (BitSet) rows.clone();
+    }
+
+    public BitSet rowsWithReleaseYear(int year) {
+        BitSet rows = rowsByYear.get(year);
+        return rows == null ? new BitSet() : (BitSet) rows.clone();
+    }
+
+    /**
+     * Rows released between {@code from} and {@code to} inclusive, either bound optional, in
+     * O(log n + k) over the sorted release index.
+     */
+    public BitSet rowsReleasedBetween(LocalDate from, LocalDate to) {
+        int start = releaseIndexStart(from);
+        int end = releaseIndexEnd(to);
+        BitSet rows = new BitSet();
+        for (int i = start; i < end; i++) {
+            rows.set(releaseIndexRows[i]);
+        }
+        return rows;
+    }
+
+    public int countReleasedBetween(LocalDate from, LocalDate to) {
+        lock.readLock().lock();
+        try {
+            return Math.max(0, releaseIndexEnd(to) - releaseIndexStart(from));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public BitSet allRows() {
+        return (BitSet) liveRows.clone();
+    }
+
+    public int countWithGenre(String genre) {
+        lock.readLock().lock();
+        try {
+            BitSet rows = rowsByGenre.get(genreKey(genre));
+            return rows == null ? 0 : rows.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int countWithReleaseYear(int year) {
+        lock.readLock().lock();
+        try {
+            BitSet rows = rowsByYear.get(year);
+            return rows == null ? 0 : rows.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Called with the write lock held, after the change has been applied.
+     */
+    private void bumpVersion() {
+        currentVersion = new CatalogVersion(epoch + "-" + version.incrementAndGet(), Instant.now());
+    }
+
+    private BitSet scanRows(Filter filter, int from, int to) {
+        List<Movie> movies = new ArrayList<>();
+        for (int row = liveRows.nextSetBit(from); row >= 0 && row < to; row = liveRows.nextSetBit(row + 1)) {
+            movies.add(materialize(row));
+        }
+        BitSet matches = new BitSet();
+        for (Movie movie : filter.filter(movies.toArray(new Movie[0]))) {
+            matches.set(rowsById.get(movie.getId()));
+        }
+        return matches;
+    }
+
+    private Movie[] materialize(BitSet rows) {
+        Movie[] movies = new Movie[rows.cardinality()];
+        int i = 0;
+        for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+            movies[i++] = materialize(row);
+        }
+        Arrays.sort(movies, Comparator.comparing(Movie::getId));
+        return movies;
+    }
+
+    private Movie[] materialize(int[] rows) {
+        Movie[] movies = new Movie[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            movies[i] = materialize(rows[i]);
+        }
+        return movies;
+    }
+
+    private Movie materialize(int row) {
+        return Movie.builder()
+                .id(ids[row])
+                .title(titles[row])
+                .genre(genreCodes[row] < 0 ? null : genreDictionary.get(genreCodes[row]))
+                .releaseDate(releaseEpochDays[row] == Integer.MIN_VALUE
+                        ? null : LocalDate.ofEpochDay(releaseEpochDays[row]))
+                .version(versionAt(row))
+                .build();
+    }
+
+    private Long versionAt(int row) {
+        return versions[row] == Long.MIN_VALUE ? null : versions[row];
+    }
+
+    private int[] pageRows(BitSet rows, long afterId, int limit) {
+        PriorityQueue<Integer> page = new PriorityQueue<>(limit + 1,
+                (left, right) -> Long.compare(ids[right], ids[left]));
+        for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+            if (ids[row] <= afterId) {
+                continue;
+            }
+            if (page.size() < limit) {
+                page.add(row);
+            } else if (!page.isEmpty() && ids[row] < ids[page.peek()]) {
+                page.poll();
+                page.add(row);
+            }
+        }
+        int[] result = new int[page.size()];
+        for (int i = result.length - 1; i >= 0; i--) {
+            result[i] = page.poll();
+        }
+        return result;
+    }
+
+    private void insert(Movie movie) {
+        int row = freeRows.isEmpty() ? rowCount++ : freeRows.pop();
+        ensureCapacity(row + 1);
+
+        ids[row] = movie.getId();
+        titles[row] = movie.getTitle();
+        genreCodes[row] = encodeGenre(movie.getGenre());
+        versions[row] = movie.getVersion() == null ? Long.MIN_VALUE : movie.getVersion();
+        if (movie.getReleaseDate() != null) {
+            releaseYears[row] = movie.getReleaseDate().getYear();
+            releaseEpochDays[row] = (int) movie.getReleaseDate().toEpochDay();
+            rowsByYear.computeIfAbsent(releaseYears[row], year -> new BitSet()).set(row);
+            if (loaded) {
+                addToReleaseIndex(row);
+            }
+        } else {
+            releaseYears[row] = Integer.MIN_VALUE;
+            releaseEpochDays[row] = Integer.MIN_VALUE;
+        }
+        if (movie.getGenre() != null) {
+            rowsByGenre.computeIfAbsent(genreKey(movie.getGenre()), genre -> new BitSet()).set(row);
+        }
+
+        liveRows.set(row);
+        rowsById.put(movie.getId(), row);
+    }
+
+    private void release(int row) {
+        if (genreCodes[row] >= 0) {
+            clearBit(rowsByGenre, genreKey(genreDictionary.get(genreCodes[row])), row);
+        }
+        if (releaseYears[row] != Integer.MIN_VALUE) {
+            clearBit(rowsByYear, releaseYears[row], row);
+            removeFromReleaseIndex(row);
+        }
+        rowsById.remove(ids[row]);
+        titles[row] = null;
+        liveRows.clear(row);
+        freeRows.push(row);
+    }
+
+    /**
+     * First position in the release index whose day is not before {@code from}.
+     */
+    private int releaseIndexStart(LocalDate from) {
+        return from == null ? 0 : releaseIndexPosition(from.toEpochDay());
+    }
+
+    /**
+     * Position just past the last entry in the release index whose day is not after {@code to}.
+     */
+    private int releaseIndexEnd(LocalDate to) {
+        return to == null ? releaseIndexSize : releaseIndexPosition(to.toEpochDay() + 1);
+    }
+
+    private int releaseIndexPosition(long day) {
+        if (day <= Integer.MIN_VALUE) {
+            return 0;
+        }
+        return day > Integer.MAX_VALUE ? releaseIndexSize : releaseIndexPosition((int) day, 0);
+    }
+
+    /**
+     * Lower bound of ({@code day}, {@code row}) in the release index.
+     */
+    private int releaseIndexPosition(int day, int row) {
+        int low = 0;
+        int high = releaseIndexSize;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int middleDay = releaseIndexDays[middle];
+            if (middleDay < day || (middleDay == day && releaseIndexRows[middle] < row)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private void addToReleaseIndex(int row) {
+        if (releaseIndexSize == releaseIndexDays.length) {
+            releaseIndexDays = Arrays.copyOf(releaseIndexDays, releaseIndexSize * 2);
+            releaseIndexRows = Arrays.copyOf(releaseIndexRows, releaseIndexSize * 2);
+        }
+        int position = releaseIndexPosition(releaseEpochDays[row], row);
+        System.arraycopy(releaseIndexDays, position, releaseIndexDays, position + 1, releaseIndexSize - position);
+        System.arraycopy(releaseIndexRows, position, releaseIndexRows, position + 1, releaseIndexSize - position);
+        releaseIndexDays[position] = releaseEpochDays[row];
+        releaseIndexRows[position] = row;
+        releaseIndexSize++;
+    }
+
+    private void removeFromReleaseIndex(int row) {
+        int position = releaseIndexPosition(releaseEpochDays[row], row);
+        if (position == releaseIndexSize || releaseIndexRows[position] != row) {
+            return;
+        }
+        releaseIndexSize--;
+        System.arraycopy(releaseIndexDays, position + 1, releaseIndexDays, position, releaseIndexSize - position);
+        System.arraycopy(releaseIndexRows, position + 1, releaseIndexRows, position, releaseIndexSize - position);
+    }
+
+    /**
+     * Sorts every dated row at once after a bulk load, packing (day, row) into a long so the sort
+     * stays on primitives.
+     */
+    private void rebuildReleaseIndex() {
+        long[] entries = new long[rowsById.size()];
+        int size = 0;
+        for (int row = liveRows.nextSetBit(0); row >= 0; row = liveRows.nextSetBit(row + 1)) {
+            if (releaseEpochDays[row] != Integer.MIN_VALUE) {
+                entries[size++] = ((long) releaseEpochDays[row] << 32) | row;
+            }
+        }
+        Arrays.sort(entries, 0, size);
+        releaseIndexDays = new int[Math.max(size, INITIAL_CAPACITY)];
+        releaseIndexRows = new int[releaseIndexDays.length];
+        for (int i = 0; i < size; i++) {
+            releaseIndexDays[i] = (int) (entries[i] >> 32);
+            releaseIndexRows[i] = (int) entries[i];
+        }
+        releaseIndexSize = size;
+    }
+
+    private static <K> void clearBit(Map<K, BitSet> index, K key, int row) {
+        BitSet rows = index.get(key);
+        if (rows != null) {
+            rows.clear(row);
+            if (rows.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private int encodeGenre(String genre) {
+        if (genre == null) {
+            return -1;
+        }
+        return genreCodesByValue.computeIfAbsent(genre, value -> {
+            genreDictionary.add(value);
+            return genreDictionary.size() - 1;
+        });
+    }
+
+    private static String genreKey(String genre) {
+        return genre.toLowerCase(Locale.ROOT);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ids.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, ids.length * 2);
+        ids = Arrays.copyOf(ids, newCapacity);
+        titles = Arrays.copyOf(titles, newCapacity);
+        genreCodes = Arrays.copyOf(genreCodes, newCapacity);
+        releaseYears = Arrays.copyOf(releaseYears, newCapacity);
+        releaseEpochDays = Arrays.copyOf(releaseEpochDays, newCapacity);
+        versions = Arrays.copyOf(versions, newCapacity);
+    }
+
+    private void clear() {
+        Arrays.fill(titles, 0, rowCount, null);
+        rowCount = 0;
+        liveRows.clear();
+        freeRows.clear();
+        rowsById.clear();
+        genreDictionary.clear();
+        genreCodesByValue.clear();
+        rowsByGenre.clear();
+        rowsByYear.clear();
+        releaseIndexSize = 0;
+    }
+
+    private class ScanTask extends RecursiveTask<BitSet> {
+        private final Filter filter;
+        private final int from;
+        private final int to;
+
+        private ScanTask(Filter filter, int from, int to) {
+            this.filter = filter;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected BitSet compute() {
+            if (to - from <= SCAN_CHUNK_ROWS) {
+                return scanRows(filter, from, to);
+            }
+            int middle = (from + to) >>> 1;
+            ScanTask left = new ScanTask(filter, from, middle);
+            left.fork();
+            BitSet rows = new ScanTask(filter, middle, to).compute();
+            rows.or(left.join());
+            return rows;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package pl.pollub.backend.util.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Marks reads that must see every committed write, whichever client made it. Caches and indexes
+ * shared by all requests load through it: they are only invalidated when a write commits, so a
+ * load served by a lagging replica would keep the old rows until the next write. Responses tagged
+ * with the catalog version read through it for the same reason. Has no effect unless replica
+ * routing is enabled.
+ */
+public final class PrimaryReads {
+    private static final ThreadLocal<Boolean> REQUIRED = new ThreadLocal<>();
+
+    private PrimaryReads() {
+    }
+
+    public static <T> T call(Supplier<T> read) {
+        Boolean previous = REQUIRED.get();
+        REQUIRED.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            REQUIRED.set(previous);
+        }
+    }
+
+    public static void run(Runnable read) {
+        call(() -> {
+            read.run();
+            return null;
+        });
+    }
+
+    public static boolean isRequired() {
+        return Boolean.TRUE.equals(REQUIRED.get());
+    }
+}
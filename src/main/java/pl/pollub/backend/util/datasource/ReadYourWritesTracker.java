@@ -0,0 +1,79 @@
+package pl.pollub.backend.util.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+
+/**
+ * Remembers which clients wrote to the primary within the last {@code window}, so their reads can
+ * stay on the primary until the replicas have caught up. A client is the authenticated user, or the
+ * remote address for anonymous requests such as registration. Work outside a request has no client
+ * and is never pinned.
+ */
+public class ReadYourWritesTracker {
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesTracker(Duration window) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    public void recordWrite() {
+        String client = currentClient();
+        if (client != null) {
+            recentWriters.put(client, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Records a write for the current client once the surrounding read-write transaction commits.
+     * Reads outside a transaction, read-only transactions and rolled-back ones record nothing.
+     */
+    public void recordWriteOnCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recordWrite();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResource(ReadYourWritesTracker.this);
+            }
+        });
+    }
+
+    public boolean recentlyWrote() {
+        String client = currentClient();
+        return client != null && recentWriters.getIfPresent(client) != null;
+    }
+
+    private static String currentClient() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            return "address:" + servletAttributes.getRequest().getRemoteAddr();
+        }
+        return null;
+    }
+}
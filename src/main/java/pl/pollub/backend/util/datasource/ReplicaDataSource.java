@@ -0,0 +1,92 @@
+package pl.pollub.backend.util.datasource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Source of connections for read-only transactions. Connections come from the healthy replicas in
+ * turn, and from the primary when the current client has just written, when the read loads shared
+ * state (see {@link PrimaryReads}), when every replica is down, or when a replica fails to hand out
+ * a connection within its pool's connection timeout. A failing replica stays out of rotation until
+ * {@link #checkHealth()} sees it answer again.
+ */
+public class ReplicaDataSource extends AbstractDataSource {
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final ReadYourWritesTracker readYourWrites;
+    private final int validationTimeoutSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaDataSource(DataSource primary, List<? extends DataSource> replicas,
+                             ReadYourWritesTracker readYourWrites, Duration failureTimeout) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.readYourWrites = readYourWrites;
+        this.validationTimeoutSeconds = (int) Math.max(1, failureTimeout.toSeconds());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (PrimaryReads.isRequired() || readYourWrites.recentlyWrote() || replicas.isEmpty()) {
+            return primary.getConnection();
+        }
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (!replica.healthy.get()) {
+                continue;
+            }
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException ex) {
+                replica.healthy.set(false);
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Replica connections use the configured credentials");
+    }
+
+    /**
+     * Validates one connection from every replica and updates which of them take reads.
+     */
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            boolean valid;
+            try (Connection connection = replica.dataSource.getConnection()) {
+                valid = connection.isValid(validationTimeoutSeconds);
+            } catch (SQLException ex) {
+                valid = false;
+            }
+            replica.healthy.set(valid);
+        }
+    }
+
+    public int getReplicaCount() {
+        return replicas.size();
+    }
+
+    public int getHealthyReplicaCount() {
+        return (int) replicas.stream().filter(replica -> replica.healthy.get()).count();
+    }
+
+    private static final class Replica {
+        private final DataSource dataSource;
+        private final AtomicBoolean healthy = new AtomicBoolean(true);
+
+        private Replica(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package pl.pollub.backend.util.export;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * Writes rows in a compact big-endian binary format. The stream starts with the magic bytes
+ * {@code MOVB} and an int format version, followed by one record per movie:
+ * <pre>
+ * int  length of the rest of the record in bytes
+ * long id
+ * int  release date as epoch day, Integer.MIN_VALUE when absent
+ * int  title length in bytes (-1 when absent), then the UTF-8 title
+ * int  genre length in bytes (-1 when absent), then the UTF-8 genre
+ * </pre>
+ */
+public class BinaryMovieExportWriter implements IMovieExportWriter {
+    public static final byte[] MAGIC = {'M', 'O', 'V', 'B'};
+    public static final int VERSION = 1;
+    public static final int NO_RELEASE_DATE = Integer.MIN_VALUE;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int FIXED_RECORD_LENGTH = Long.BYTES + 3 * Integer.BYTES;
+
+    private final DataOutputStream output;
+
+    public BinaryMovieExportWriter(OutputStream output) throws IOException {
+        this.output = new DataOutputStream(new BufferedOutputStream(output, BUFFER_SIZE));
+        this.output.write(MAGIC);
+        this.output.writeInt(VERSION);
+    }
+
+    @Override
+    public void handle(long id, String title, String genre, LocalDate releaseDate) throws IOException {
+        byte[] titleBytes = title == null ? null : title.getBytes(StandardCharsets.UTF_8);
+        byte[] genreBytes = genre == null ? null : genre.getBytes(StandardCharsets.UTF_8);
+
+        output.writeInt(FIXED_RECORD_LENGTH + length(titleBytes) + length(genreBytes));
+        output.writeLong(id);
+        output.writeInt(releaseDate == null ? NO_RELEASE_DATE : (int) releaseDate.toEpochDay());
+        writeBytes(titleBytes);
+        writeBytes(genreBytes);
+    }
+
+    @Override
+    public void finish() throws IOException {
+        output.flush();
+    }
+
+    private void writeBytes(byte[] bytes) throws IOException {
+        if (bytes == null) {
+            output.writeInt(-1);
+            return;
+        }
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static int length(byte[] bytes) {
+        return bytes == null ? 0 : bytes.length;
+    }
+}
@@ -0,0 +1,57 @@
+package pl.pollub.backend.util.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * Writes rows as CSV with an {@code id,title,genre,releaseDate} header, in the format read back by
+ * the CSV import. Fields holding a comma, quote or line break are quoted; a {@code \r\n} or lone
+ * {@code \r} inside one is read back as {@code \n}.
+ */
+public class CsvMovieExportWriter implements IMovieExportWriter {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Writer writer;
+
+    public CsvMovieExportWriter(OutputStream output) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), BUFFER_SIZE);
+        writer.write("id,title,genre,releaseDate\n");
+    }
+
+    @Override
+    public void handle(long id, String title, String genre, LocalDate releaseDate) throws IOException {
+        writer.write(Long.toString(id));
+        writer.write(',');
+        writeField(title);
+        writer.write(',');
+        writeField(genre);
+        writer.write(',');
+        if (releaseDate != null) {
+            writer.write(releaseDate.toString());
+        }
+        writer.write('\n');
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writer.flush();
+    }
+
+    private void writeField(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
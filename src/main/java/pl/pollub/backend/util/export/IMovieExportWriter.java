@@ -0,0 +1,12 @@
+package pl.pollub.backend.util.export;
+
+import pl.pollub.backend.repository.movie.IMovieRowHandler;
+
+import java.io.IOException;
+
+public interface IMovieExportWriter extends IMovieRowHandler {
+    /**
+     * Flushes buffered rows to the underlying stream without closing it.
+     */
+    void finish() throws IOException;
+}
@@ -0,0 +1,48 @@
+package pl.pollub.backend.util.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.Optional;
+
+public enum MovieExportFormat {
+    CSV("text/csv", "movies.csv") {
+        @Override
+        public IMovieExportWriter open(OutputStream output) throws IOException {
+            return new CsvMovieExportWriter(output);
+        }
+    },
+    BINARY("application/octet-stream", "movies.bin") {
+        @Override
+        public IMovieExportWriter open(OutputStream output) throws IOException {
+            return new BinaryMovieExportWriter(output);
+        }
+    };
+
+    private final String contentType;
+    private final String fileName;
+
+    MovieExportFormat(String contentType, String fileName) {
+        this.contentType = contentType;
+        this.fileName = fileName;
+    }
+
+    public abstract IMovieExportWriter open(OutputStream output) throws IOException;
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public static Optional<MovieExportFormat> fromName(String name) {
+        for (MovieExportFormat format : values()) {
+            if (format.name().equals(name.toUpperCase(Locale.ROOT))) {
+                return Optional.of(format);
+            }
+        }
+        return Optional.empty();
+    }
+}
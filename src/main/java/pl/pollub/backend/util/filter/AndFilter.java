@@ -0,0 +1,91 @@
+package pl.pollub.backend.util.filter;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+import pl.pollub.backend.model.movie.Movie;
+import pl.pollub.backend.util.catalog.MovieCatalog;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class AndFilter extends Filter {
+    private final List<Filter> filters;
+
+    @Override
+    public Movie[] filter(Movie[] movies) {
+        Movie[] result = movies;
+        for (Filter filter : filters) {
+            if (result.length == 0) {
+                break;
+            }
+            result = filter.filter(result);
+        }
+        return result;
+    }
+
+    @Override
+    public Optional<BitSet> select(MovieCatalog catalog) {
+        BitSet result = catalog.allRows();
+        for (Filter filter : filters) {
+            Optional<BitSet> rows = filter.select(catalog);
+            if (rows.isEmpty()) {
+                return Optional.empty();
+            }
+            result.and(rows.get());
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return Optional.of(result);
+    }
+
+    @Override
+    public Optional<Specification<Movie>> toSpecification() {
+        List<Specification<Movie>> specifications = new ArrayList<>();
+        for (Filter filter : filters) {
+            Optional<Specification<Movie>> specification = filter.toSpecification();
+            if (specification.isEmpty()) {
+                return Optional.empty();
+            }
+            specifications.add(specification.get());
+        }
+        return Optional.of(Specification.allOf(specifications));
+    }
+
+    @Override
+    public Optional<String> cacheKey() {
+        return compositeKey("and", filters);
+    }
+
+    @Override
+    public double estimateSelectivity(MovieCatalog catalog) {
+        double selectivity = 1.0;
+        for (Filter filter : filters) {
+            selectivity *= filter.estimateSelectivity(catalog);
+        }
+        return selectivity;
+    }
+
+    @Override
+    public Filter plan(MovieCatalog catalog) {
+        List<Filter> planned = new ArrayList<>();
+        for (Filter filter : filters) {
+            Filter child = filter.plan(catalog);
+            if (child instanceof AndFilter nested) {
+                planned.addAll(nested.filters);
+            } else {
+                planned.add(child);
+            }
+        }
+        planned.sort(Comparator.comparingDouble(filter -> filter.estimateSelectivity(catalog)));
+        return new AndFilter(planned);
+    }
+
+    public List<Filter> getFilters() {
+        return List.copyOf(filters);
+    }
+}
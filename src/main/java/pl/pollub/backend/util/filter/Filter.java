@@ -1,7 +1,68 @@
 package pl.pollub.backend.util.filter;
 
+import org.springframework.data.jpa.domain.Specification;
 import pl.pollub.backend.model.movie.Movie;
+import pl.pollub.backend.util.catalog.MovieCatalog;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.StringJoiner;
 
 public abstract class Filter {
     public abstract Movie[] filter(Movie[] movies);
-}
\ No newline at end of file
+
+    /**
+     * Rows of {@code catalog} matched by this filter. Filters backed by an index override this; the
+     * default scans the catalog with {@link #filter}.
+     */
+    public Optional<BitSet> select(MovieCatalog catalog) {
+        return Optional.of(catalog.scan(this));
+    }
+
+    public Optional<Specification<Movie>> toSpecification() {
+        return Optional.empty();
+    }
+
+    /**
+     * Value identity of this filter, used to cache its results. Filters that cannot describe their
+     * predicate as a value return empty and are never cached.
+     */
+    public Optional<String> cacheKey() {
+        return Optional.empty();
+    }
+
+    /**
+     * Estimated fraction of the catalog matched by this filter, between 0 and 1.
+     */
+    public double estimateSelectivity(MovieCatalog catalog) {
+        return 1.0;
+    }
+
+    /**
+     * Returns an equivalent filter rearranged so that the most selective predicates run first.
+     */
+    public Filter plan(MovieCatalog catalog) {
+        return this;
+    }
+
+    protected static Optional<String> compositeKey(String operator, List<Filter> filters) {
+        StringJoiner key = new StringJoiner(",", operator + "(", ")");
+        for (Filter filter : filters) {
+            Optional<String> childKey = filter.cacheKey();
+            if (childKey.isEmpty()) {
+                return Optional.empty();
+            }
+            key.add(childKey.get());
+        }
+        return Optional.of(key.toString());
+    }
+
+    protected static double fractionOf(int matching, MovieCatalog catalog, double fallback) {
+        if (!catalog.isLoaded()) {
+            return fallback;
+        }
+        int size = catalog.size();
+        return size == 0 ? 0.0 : (double) matching / size;
+    }
+}
@@ -1,13 +1,20 @@
 package pl.pollub.backend.util.filter;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
 import pl.pollub.backend.model.movie.Movie;
+import pl.pollub.backend.util.catalog.MovieCatalog;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
 
 @RequiredArgsConstructor
 public class GenreFilter extends Filter {
+    private static final double DEFAULT_SELECTIVITY = 0.1;
+
     private final String genre;
 
     @Override
@@ -20,4 +27,24 @@ public class GenreFilter extends Filter {
         }
         return list.toArray(new Movie[0]);
     }
-}
\ No newline at end of file
+
+    @Override
+    public Optional<BitSet> select(MovieCatalog catalog) {
+        return Optional.of(catalog.rowsWithGenre(genre));
+    }
+
+    @Override
+    public Optional<Specification<Movie>> toSpecification() {
+        return Optional.of((root, query, cb) -> cb.equal(root.get("genre"), genre));
+    }
+
+    @Override
+    public Optional<String> cacheKey() {
+        return Optional.of("genre=" + genre.toLowerCase(Locale.ROOT));
+    }
+
+    @Override
+    public double estimateSelectivity(MovieCatalog catalog) {
+        return fractionOf(catalog.countWithGenre(genre), catalog, DEFAULT_SELECTIVITY);
+    }
+}
@@ -0,0 +1,56 @@
+package pl.pollub.backend.util.filter;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+import pl.pollub.backend.model.movie.Movie;
+import pl.pollub.backend.util.catalog.MovieCatalog;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Optional;
+import java.util.Set;
+
+@RequiredArgsConstructor
+public class NotFilter extends Filter {
+    private final Filter filter;
+
+    @Override
+    public Movie[] filter(Movie[] movies) {
+        Set<Movie> excluded = Collections.newSetFromMap(new IdentityHashMap<>());
+        excluded.addAll(Arrays.asList(filter.filter(movies)));
+        return Arrays.stream(movies)
+                .filter(movie -> !excluded.contains(movie))
+                .toArray(Movie[]::new);
+    }
+
+    @Override
+    public Optional<BitSet> select(MovieCatalog catalog) {
+        return filter.select(catalog).map(rows -> {
+            BitSet result = catalog.allRows();
+            result.andNot(rows);
+            return result;
+        });
+    }
+
+    @Override
+    public Optional<Specification<Movie>> toSpecification() {
+        return filter.toSpecification().map(Specification::not);
+    }
+
+    @Override
+    public Optional<String> cacheKey() {
+        return filter.cacheKey().map(key -> "not(" + key + ")");
+    }
+
+    @Override
+    public double estimateSelectivity(MovieCatalog catalog) {
+        return 1.0 - filter.estimateSelectivity(catalog);
+    }
+
+    @Override
+    public Filter plan(MovieCatalog catalog) {
+        return new NotFilter(filter.plan(catalog));
+    }
+}
@@ -0,0 +1,101 @@
+package pl.pollub.backend.util.filter;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+import pl.pollub.backend.model.movie.Movie;
+import pl.pollub.backend.util.catalog.MovieCatalog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+@RequiredArgsConstructor
+public class OrFilter extends Filter {
+    private final List<Filter> filters;
+
+    @Override
+    public Movie[] filter(Movie[] movies) {
+        Set<Movie> matched = Collections.newSetFromMap(new IdentityHashMap<>());
+        Movie[] remaining = movies;
+        for (Filter filter : filters) {
+            if (remaining.length == 0) {
+                break;
+            }
+            matched.addAll(Arrays.asList(filter.filter(remaining)));
+            remaining = Arrays.stream(remaining)
+                    .filter(movie -> !matched.contains(movie))
+                    .toArray(Movie[]::new);
+        }
+        return Arrays.stream(movies)
+                .filter(matched::contains)
+                .toArray(Movie[]::new);
+    }
+
+    @Override
+    public Optional<BitSet> select(MovieCatalog catalog) {
+        BitSet result = new BitSet();
+        for (Filter filter : filters) {
+            Optional<BitSet> rows = filter.select(catalog);
+            if (rows.isEmpty()) {
+                return Optional.empty();
+            }
+            result.or(rows.get());
+        }
+        return Optional.of(result);
+    }
+
+    @Override
+    public Optional<Specification<Movie>> toSpecification() {
+        List<Specification<Movie>> specifications = new ArrayList<>();
+        for (Filter filter : filters) {
+            Optional<Specification<Movie>> specification = filter.toSpecification();
+            if (specification.isEmpty()) {
+                return Optional.empty();
+            }
+            specifications.add(specification.get());
+        }
+        return Optional.of(Specification.anyOf(specifications));
+    }
+
+    @Override
+    public Optional<String> cacheKey() {
+        return compositeKey("or", filters);
+    }
+
+    @Override
+    public double estimateSelectivity(MovieCatalog catalog) {
+        double rejected = 1.0;
+        for (Filter filter : filters) {
+            rejected *= 1.0 - filter.estimateSelectivity(catalog);
+        }
+        return 1.0 - rejected;
+    }
+
+    /**
+     * Each branch only scans the movies not matched by an earlier one, so the broadest branch goes first.
+     */
+    @Override
+    public Filter plan(MovieCatalog catalog) {
+        List<Filter> planned = new ArrayList<>();
+        for (Filter filter : filters) {
+            Filter child = filter.plan(catalog);
+            if (child instanceof OrFilter nested) {
+                planned.addAll(nested.filters);
+            } else {
+                planned.add(child);
+            }
+        }
+        planned.sort(Comparator.comparingDouble((Filter filter) -> filter.estimateSelectivity(catalog)).reversed());
+        return new OrFilter(planned);
+    }
+
+    public List<Filter> getFilters() {
+        return List.copyOf(filters);
+    }
+}
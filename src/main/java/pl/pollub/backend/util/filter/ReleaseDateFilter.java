@@ -0,0 +1,61 @@
+package pl.pollub.backend.util.filter;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+import pl.pollub.backend.model.movie.Movie;
+import pl.pollub.backend.util.catalog.MovieCatalog;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class ReleaseDateFilter extends Filter {
+    private static final double DEFAULT_SELECTIVITY = 0.25;
+
+    private final LocalDate from;
+    private final LocalDate to;
+
+    @Override
+    public Movie[] filter(Movie[] movies) {
+        return Arrays.stream(movies)
+                .filter(movie -> isWithinRange(movie.getReleaseDate()))
+                .toArray(Movie[]::new);
+    }
+
+    @Override
+    public Optional<BitSet> select(MovieCatalog catalog) {
+        return Optional.of(catalog.rowsReleasedBetween(from, to));
+    }
+
+    @Override
+    public Optional<Specification<Movie>> toSpecification() {
+        if (from != null && to != null) {
+            return Optional.of((root, query, cb) -> cb.between(root.get("releaseDate"), from, to));
+        }
+        if (from != null) {
+            return Optional.of((root, query, cb) -> cb.greaterThanOrEqualTo(root.get("releaseDate"), from));
+        }
+        if (to != null) {
+            return Optional.of((root, query, cb) -> cb.lessThanOrEqualTo(root.get("releaseDate"), to));
+        }
+        return Optional.of((root, query, cb) -> cb.isNotNull(root.get("releaseDate")));
+    }
+
+    @Override
+    public Optional<String> cacheKey() {
+        return Optional.of("released=" + from + ".." + to);
+    }
+
+    @Override
+    public double estimateSelectivity(MovieCatalog catalog) {
+        return fractionOf(catalog.countReleasedBetween(from, to), catalog, DEFAULT_SELECTIVITY);
+    }
+
+    private boolean isWithinRange(LocalDate releaseDate) {
+        return releaseDate != null
+                && (from == null || !releaseDate.isBefore(from))
+                && (to == null || !releaseDate.isAfter(to));
+    }
+}
@@ -1,11 +1,17 @@
 package pl.pollub.backend.util.filter;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
 import pl.pollub.backend.model.movie.Movie;
+import pl.pollub.backend.util.catalog.MovieCatalog;
+
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Optional;
 
 @RequiredArgsConstructor
 public class YearFilter extends Filter {
+    private static final double DEFAULT_SELECTIVITY = 0.05;
 
     public final int year;
 
@@ -15,4 +21,24 @@ public class YearFilter extends Filter {
                 .filter(movie -> movie.getReleaseDate().getYear() == year)
                 .toArray(Movie[]::new);
     }
-}
\ No newline at end of file
+
+    @Override
+    public Optional<BitSet> select(MovieCatalog catalog) {
+        return Optional.of(catalog.rowsWithReleaseYear(year));
+    }
+
+    @Override
+    public Optional<Specification<Movie>> toSpecification() {
+        return Optional.of((root, query, cb) -> cb.equal(root.get("releaseYear"), year));
+    }
+
+    @Override
+    public Optional<String> cacheKey() {
+        return Optional.of("year=" + year);
+    }
+
+    @Override
+    public double estimateSelectivity(MovieCatalog catalog) {
+        return fractionOf(catalog.countWithReleaseYear(year), catalog, DEFAULT_SELECTIVITY);
+    }
+}
@@ -0,0 +1,70 @@
+package pl.pollub.backend.util.importer;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads lines like {@link java.io.BufferedReader#readLine()}, but keeps at most {@code maxLength}
+ * characters of each. The rest of a longer line is read and dropped, so a single huge line cannot
+ * exhaust memory; {@link #wasTruncated()} tells the caller the last line was cut.
+ */
+public class BoundedLineReader {
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Reader reader;
+    private final int maxLength;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private boolean skipLineFeed;
+    private boolean truncated;
+
+    public BoundedLineReader(Reader reader, int maxLength) {
+        this.reader = reader;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Returns the next line without its terminator ({@code \n}, {@code \r} or {@code \r\n}), or
+     * {@code null} at the end of the input.
+     */
+    public String readLine() throws IOException {
+        StringBuilder line = null;
+        truncated = false;
+        while (true) {
+            if (position == limit) {
+                limit = Math.max(reader.read(buffer, 0, buffer.length), 0);
+                position = 0;
+                if (limit == 0) {
+                    return line == null ? null : line.toString();
+                }
+            }
+            if (skipLineFeed) {
+                skipLineFeed = false;
+                if (buffer[position] == '\n') {
+                    position++;
+                    continue;
+                }
+            }
+            int start = position;
+            while (position < limit && buffer[position] != '\n' && buffer[position] != '\r') {
+                position++;
+            }
+            if (line == null) {
+                line = new StringBuilder();
+            }
+            int kept = Math.min(position - start, maxLength - line.length());
+            line.append(buffer, start, kept);
+            truncated |= kept < position - start;
+            if (position < limit) {
+                skipLineFeed = buffer[position] == '\r';
+                position++;
+                return line.toString();
+            }
+        }
+    }
+
+    public boolean wasTruncated() {
+        return truncated;
+    }
+}
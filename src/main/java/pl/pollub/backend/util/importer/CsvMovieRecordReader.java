@@ -0,0 +1,139 @@
+package pl.pollub.backend.util.importer;
+
+import pl.pollub.backend.dto.movie.MovieDto;
+import pl.pollub.backend.exception.InvalidDataException;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads movies from CSV with a header line naming the {@code title}, {@code genre} and
+ * {@code releaseDate} columns in any order. Fields may be double-quoted, with {@code ""} for a
+ * literal quote; a quoted field may span lines, each line break in it being read as {@code \n}.
+ * Rows are numbered by the line they start on.
+ */
+public class CsvMovieRecordReader implements IMovieRecordReader {
+    private static final String TITLE = "title";
+    private static final String GENRE = "genre";
+    private static final String RELEASE_DATE = "releaseDate";
+    /**
+     * Longest record, in characters, before an open quote is reported as unterminated rather than
+     * swallowing the rest of the input.
+     */
+    private static final int MAX_RECORD_LENGTH = 64 * 1024;
+
+    private final BoundedLineReader reader;
+    private long row;
+    private int titleColumn = -1;
+    private int genreColumn = -1;
+    private int releaseDateColumn = -1;
+
+    public CsvMovieRecordReader(BoundedLineReader reader) throws IOException {
+        this.reader = reader;
+        readHeader();
+    }
+
+    @Override
+    public MovieRecord next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            row++;
+        } while (line.isBlank() && !reader.wasTruncated());
+
+        long firstRow = row;
+        if (reader.wasTruncated()) {
+            return MovieRecord.failed(firstRow, "Line is longer than " + MovieImportFormat.MAX_LINE_LENGTH + " characters");
+        }
+        StringBuilder record = new StringBuilder(line);
+        List<String> fields = split(record);
+        while (fields == null) {
+            String continuation = record.length() < MAX_RECORD_LENGTH ? reader.readLine() : null;
+            if (continuation == null || reader.wasTruncated()) {
+                return MovieRecord.failed(firstRow, "Unterminated quoted field");
+            }
+            row++;
+            fields = split(record.append('\n').append(continuation));
+        }
+        LocalDate releaseDate = null;
+        String releaseDateField = field(fields, releaseDateColumn);
+        if (releaseDateField != null) {
+            try {
+                releaseDate = LocalDate.parse(releaseDateField);
+            } catch (DateTimeParseException ex) {
+                return MovieRecord.failed(firstRow, "Invalid release date: " + releaseDateField);
+            }
+        }
+        return MovieRecord.parsed(firstRow,
+                new MovieDto(field(fields, titleColumn), field(fields, genreColumn), releaseDate));
+    }
+
+    private void readHeader() throws IOException {
+        String header = reader.readLine();
+        row++;
+        List<String> columns = header == null || reader.wasTruncated() ? null : split(header);
+        if (columns == null) {
+            throw new InvalidDataException("CSV header is missing or malformed");
+        }
+        for (int i = 0; i < columns.size(); i++) {
+            switch (columns.get(i).trim()) {
+                case TITLE -> titleColumn = i;
+                case GENRE -> genreColumn = i;
+                case RELEASE_DATE -> releaseDateColumn = i;
+                default -> {
+                }
+            }
+        }
+        if (titleColumn < 0 || genreColumn < 0 || releaseDateColumn < 0) {
+            throw new InvalidDataException("CSV header must contain title, genre and releaseDate columns");
+        }
+    }
+
+    private static String field(List<String> fields, int column) {
+        if (column >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(column);
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Splits one CSV record, returning {@code null} if a quoted field is not closed yet.
+     */
+    private static List<String> split(CharSequence line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
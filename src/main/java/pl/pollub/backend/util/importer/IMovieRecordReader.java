@@ -0,0 +1,11 @@
+package pl.pollub.backend.util.importer;
+
+import java.io.IOException;
+
+public interface IMovieRecordReader {
+    /**
+     * Returns the next record, or {@code null} at the end of the input. Only the current line is
+     * held in memory.
+     */
+    MovieRecord next() throws IOException;
+}
@@ -0,0 +1,35 @@
+package pl.pollub.backend.util.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Import file formats. Input lines are capped at {@link #MAX_LINE_LENGTH} characters; a longer
+ * line is reported as a failed row instead of being held in memory.
+ */
+public enum MovieImportFormat {
+    CSV {
+        @Override
+        public IMovieRecordReader open(InputStream input, ObjectMapper objectMapper) throws IOException {
+            return new CsvMovieRecordReader(reader(input));
+        }
+    },
+    NDJSON {
+        @Override
+        public IMovieRecordReader open(InputStream input, ObjectMapper objectMapper) {
+            return new NdjsonMovieRecordReader(reader(input), objectMapper.reader());
+        }
+    };
+
+    public abstract IMovieRecordReader open(InputStream input, ObjectMapper objectMapper) throws IOException;
+
+    public static final int MAX_LINE_LENGTH = 64 * 1024;
+
+    private static BoundedLineReader reader(InputStream input) {
+        return new BoundedLineReader(new InputStreamReader(input, StandardCharsets.UTF_8), MAX_LINE_LENGTH);
+    }
+}
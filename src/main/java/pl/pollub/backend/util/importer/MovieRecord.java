@@ -0,0 +1,22 @@
+package pl.pollub.backend.util.importer;
+
+import pl.pollub.backend.dto.movie.MovieDto;
+
+/**
+ * One record of an import file: the parsed movie, or the reason it could not be parsed.
+ * {@code row} is the 1-based line number in the file.
+ */
+public record MovieRecord(long row, MovieDto movie, String error) {
+
+    public static MovieRecord parsed(long row, MovieDto movie) {
+        return new MovieRecord(row, movie, null);
+    }
+
+    public static MovieRecord failed(long row, String error) {
+        return new MovieRecord(row, null, error);
+    }
+
+    public boolean isParsed() {
+        return error == null;
+    }
+}
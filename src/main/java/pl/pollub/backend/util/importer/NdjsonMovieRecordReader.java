@@ -0,0 +1,39 @@
+package pl.pollub.backend.util.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import pl.pollub.backend.dto.movie.MovieDto;
+
+import java.io.IOException;
+
+public class NdjsonMovieRecordReader implements IMovieRecordReader {
+    private final BoundedLineReader reader;
+    private final ObjectReader movieReader;
+    private long row;
+
+    public NdjsonMovieRecordReader(BoundedLineReader reader, ObjectReader movieReader) {
+        this.reader = reader;
+        this.movieReader = movieReader.forType(MovieDto.class);
+    }
+
+    @Override
+    public MovieRecord next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            row++;
+        } while (line.isBlank() && !reader.wasTruncated());
+
+        if (reader.wasTruncated()) {
+            return MovieRecord.failed(row, "Line is longer than " + MovieImportFormat.MAX_LINE_LENGTH + " characters");
+        }
+        try {
+            return MovieRecord.parsed(row, movieReader.readValue(line));
+        } catch (JsonProcessingException ex) {
+            return MovieRecord.failed(row, "Malformed JSON record");
+        }
+    }
+}
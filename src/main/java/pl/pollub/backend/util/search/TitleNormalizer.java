@@ -0,0 +1,41 @@
+package pl.pollub.backend.util.search;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalizes titles for matching: lower case, no diacritics, words separated by single spaces.
+ */
+public final class TitleNormalizer {
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final String[] NO_WORDS = new String[0];
+
+    private TitleNormalizer() {
+    }
+
+    public static String[] words(String text) {
+        if (text == null) {
+            return NO_WORDS;
+        }
+        String normalized = isAscii(text) ? text.toLowerCase(Locale.ROOT)
+                : DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        String trimmed = WORD_SEPARATOR.matcher(normalized).replaceAll(" ").trim();
+        return trimmed.isEmpty() ? NO_WORDS : trimmed.split(" ");
+    }
+
+    public static String normalize(String text) {
+        return String.join(" ", words(text));
+    }
+
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 0x7F) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
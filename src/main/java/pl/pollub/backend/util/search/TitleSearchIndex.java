@@ -0,0 +1,461 @@
+package pl.pollub.backend.util.search;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import pl.pollub.backend.model.movie.Movie;
+import pl.pollub.backend.util.catalog.IMovieChangeListener;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * In-memory inverted index over tokenized movie titles. Query terms match exactly indexed terms,
+ * and also terms within a small edit distance. Those typo candidates are found through a trigram
+ * index over the vocabulary, so fuzzy matching never scans every title. Results are ranked by
+ * the summed inverse document frequency of the matched terms, weighted by match similarity.
+ * Searches score into slot-indexed buffers taken from a fixed pool, so memory held for scoring is
+ * bounded by the pool size rather than by the number of request threads.
+ */
+@Component
+public class TitleSearchIndex implements IMovieChangeListener {
+    private static final int MAX_FUZZY_TERMS = 8;
+    private static final double LENGTH_PENALTY = 0.1;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final BlockingQueue<Scratch> scratchPool;
+
+    private Movie[] moviesBySlot = new Movie[INITIAL_CAPACITY];
+    private String[][] termsBySlot = new String[INITIAL_CAPACITY][];
+    private int slotCount;
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private final Map<Long, Integer> slotsById = new HashMap<>();
+    private final Map<String, IntList> postings = new HashMap<>();
+    private final Map<String, Set<String>> termsByTrigram = new HashMap<>();
+    private boolean loaded;
+
+    /**
+     * @param scratchPoolSize number of searches that can score at once; 0 uses the number of
+     *                        available processors, since scoring is CPU-bound
+     */
+    public TitleSearchIndex(@Value("${movies.search.scratch-pool-size:0}") int scratchPoolSize) {
+        int poolSize = scratchPoolSize > 0 ? scratchPoolSize : Runtime.getRuntime().availableProcessors();
+        this.scratchPool = new ArrayBlockingQueue<>(poolSize);
+        for (int i = 0; i < poolSize; i++) {
+            scratchPool.add(new Scratch());
+        }
+    }
+
+    public boolean isLoaded() {
+        lock.readLock().lock();
+        try {
+            return loaded;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void loadIfNeeded(Supplier<? extends Collection<Movie>> source) {
+        if (isLoaded()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (loaded) {
+                return;
+            }
+            clear();
+            for (Movie movie : source.get()) {
+                index(movie);
+            }
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void invalidate() {
+        lock.writeLock().lock();
+        try {
+            clear();
+            loaded = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void movieSaved(Movie movie) {
+        if (movie.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (loaded && !isOutdated(movie)) {
+                unindex(movie.getId());
+                index(movie);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean isOutdated(Movie movie) {
+        Integer slot = slotsById.get(movie.getId());
+        return slot != null && IMovieChangeListener.isOutdated(movie, moviesBySlot[slot].getVersion());
+    }
+
+    @Override
+    public void movieDeleted(Long id) {
+        lock.writeLock().lock();
+        try {
+            if (loaded) {
+                unindex(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns copies of up to {@code limit} movies whose titles match any term of {@code query},
+     * best first. Scores are accumulated term at a time into pooled arrays indexed by slot; a search
+     * waits while every buffer is in use.
+     */
+    public List<Movie> search(String query, int limit) {
+        String[] queryTerms = tokenize(query);
+        Scratch buffers = takeScratch();
+        try {
+            lock.readLock().lock();
+            try {
+                int documentCount = slotsById.size();
+                buffers.ensureCapacity(slotCount);
+                for (int i = 0; i < queryTerms.length; i++) {
+                    List<TermMatch> matches = new ArrayList<>();
+                    for (TermMatch match : matchingTerms(queryTerms[i])) {
+                        double idf = Math.log(1.0 + (double) documentCount / postings.get(match.term()).size());
+                        matches.add(new TermMatch(match.term(), match.similarity() * idf));
+                    }
+                    // Heaviest variant first, so each slot is credited once per query term with its best match.
+                    matches.sort(Comparator.comparingDouble(TermMatch::similarity).reversed());
+                    for (TermMatch match : matches) {
+                        buffers.credit(postings.get(match.term()), i + 1, (float) match.similarity());
+                    }
+                }
+                return topMovies(buffers, limit);
+            } finally {
+                lock.readLock().unlock();
+            }
+        } finally {
+            buffers.reset();
+            scratchPool.add(buffers);
+        }
+    }
+
+    public static String[] tokenize(String text) {
+        return new LinkedHashSet<>(Arrays.asList(TitleNormalizer.words(text))).toArray(new String[0]);
+    }
+
+    private List<Movie> topMovies(Scratch buffers, int limit) {
+        Comparator<ScoredMovie> ranking = Comparator.comparingDouble(ScoredMovie::score)
+                .thenComparing(scored -> scored.movie().getId(), Comparator.reverseOrder());
+        PriorityQueue<ScoredMovie> top = new PriorityQueue<>(limit + 1, ranking);
+        IntList touched = buffers.touched;
+        for (int i = 0; i < touched.size(); i++) {
+            int slot = touched.get(i);
+            double score = buffers.scores[slot] / (1.0 + LENGTH_PENALTY * termsBySlot[slot].length);
+            if (top.size() < limit) {
+                top.add(new ScoredMovie(moviesBySlot[slot], score));
+            } else if (outranks(score, moviesBySlot[slot], top.peek())) {
+                top.poll();
+                top.add(new ScoredMovie(moviesBySlot[slot], score));
+            }
+        }
+        List<Movie> result = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            result.add(top.poll().movie().toBuilder().build());
+        }
+        return result.reversed();
+    }
+
+    private Scratch takeScratch() {
+        try {
+            return scratchPool.take();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a search buffer", ex);
+        }
+    }
+
+    private static boolean outranks(double score, Movie movie, ScoredMovie lowest) {
+        return score > lowest.score() || (score == lowest.score() && movie.getId() < lowest.movie().getId());
+    }
+
+    private List<TermMatch> matchingTerms(String queryTerm) {
+        List<TermMatch> matches = new ArrayList<>();
+        if (postings.containsKey(queryTerm)) {
+            matches.add(new TermMatch(queryTerm, 1.0));
+        }
+        int maxEdits = maxEdits(queryTerm);
+        if (maxEdits == 0) {
+            return matches;
+        }
+
+        Set<String> queryTrigrams = trigrams(queryTerm);
+        Map<String, Integer> sharedTrigrams = new HashMap<>();
+        for (String trigram : queryTrigrams) {
+            for (String term : termsByTrigram.getOrDefault(trigram, Set.of())) {
+                sharedTrigrams.merge(term, 1, Integer::sum);
+            }
+        }
+        // An edit changes at most three trigrams (four for a transposition), so closer terms must
+        // share the rest.
+        int minShared = Math.max(1, queryTrigrams.size() - 4 * maxEdits);
+        List<TermMatch> fuzzy = new ArrayList<>();
+        for (Map.Entry<String, Integer> candidate : sharedTrigrams.entrySet()) {
+            String term = candidate.getKey();
+            if (candidate.getValue() < minShared || term.equals(queryTerm)
+                    || Math.abs(term.length() - queryTerm.length()) > maxEdits) {
+                continue;
+            }
+            int distance = editDistance(queryTerm, term, maxEdits);
+            if (distance <= maxEdits) {
+                fuzzy.add(new TermMatch(term, 1.0 - (double) distance / Math.max(term.length(), queryTerm.length())));
+            }
+        }
+        fuzzy.sort(Comparator.comparingDouble(TermMatch::similarity).reversed()
+                .thenComparing(match -> -postings.get(match.term()).size()));
+        matches.addAll(fuzzy.subList(0, Math.min(fuzzy.size(), MAX_FUZZY_TERMS)));
+        return matches;
+    }
+
+    private void index(Movie movie) {
+        String[] terms = tokenize(movie.getTitle());
+        int slot = freeSlots.isEmpty() ? slotCount++ : freeSlots.pop();
+        ensureCapacity(slot + 1);
+        moviesBySlot[slot] = movie;
+        termsBySlot[slot] = terms;
+        slotsById.put(movie.getId(), slot);
+        for (String term : terms) {
+            IntList slots = postings.get(term);
+            if (slots == null) {
+                slots = new IntList();
+                postings.put(term, slots);
+                for (String trigram : trigrams(term)) {
+                    termsByTrigram.computeIfAbsent(trigram, key -> new HashSet<>()).add(term);
+                }
+            }
+            slots.insert(slot);
+        }
+    }
+
+    private void unindex(Long id) {
+        Integer slot = slotsById.remove(id);
+        if (slot == null) {
+            return;
+        }
+        for (String term : termsBySlot[slot]) {
+            IntList slots = postings.get(term);
+            slots.remove(slot);
+            if (slots.size() == 0) {
+                postings.remove(term);
+                for (String trigram : trigrams(term)) {
+                    Set<String> trigramTerms = termsByTrigram.get(trigram);
+                    trigramTerms.remove(term);
+                    if (trigramTerms.isEmpty()) {
+                        termsByTrigram.remove(trigram);
+                    }
+                }
+            }
+        }
+        moviesBySlot[slot] = null;
+        termsBySlot[slot] = null;
+        freeSlots.push(slot);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= moviesBySlot.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, moviesBySlot.length * 2);
+        moviesBySlot = Arrays.copyOf(moviesBySlot, newCapacity);
+        termsBySlot = Arrays.copyOf(termsBySlot, newCapacity);
+    }
+
+    private void clear() {
+        Arrays.fill(moviesBySlot, 0, slotCount, null);
+        Arrays.fill(termsBySlot, 0, slotCount, null);
+        slotCount = 0;
+        freeSlots.clear();
+        slotsById.clear();
+        postings.clear();
+        termsByTrigram.clear();
+    }
+
+    private static int maxEdits(String term) {
+        if (term.length() <= 3) {
+            return 0;
+        }
+        return term.length() <= 6 ? 1 : 2;
+    }
+
+    private static Set<String> trigrams(String term) {
+        String padded = "$" + term + "$";
+        Set<String> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    /**
+     * Optimal string alignment distance (Levenshtein plus adjacent transpositions), giving up once
+     * it exceeds {@code limit}.
+     */
+    private static int editDistance(String left, String right, int limit) {
+        int[] previousPrevious = new int[right.length() + 1];
+        int[] previous = new int[right.length() + 1];
+        int[] current = new int[right.length() + 1];
+        for (int j = 0; j <= right.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= left.length(); i++) {
+            current[0] = i;
+            int rowMinimum = current[0];
+            for (int j = 1; j <= right.length(); j++) {
+                int cost = left.charAt(i - 1) == right.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && left.charAt(i - 1) == right.charAt(j - 2)
+                        && left.charAt(i - 2) == right.charAt(j - 1)) {
+                    current[j] = Math.min(current[j], previousPrevious[j - 2] + 1);
+                }
+                rowMinimum = Math.min(rowMinimum, current[j]);
+            }
+            if (rowMinimum > limit) {
+                return limit + 1;
+            }
+            int[] recycled = previousPrevious;
+            previousPrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[right.length()];
+    }
+
+    private record TermMatch(String term, double similarity) {
+    }
+
+    private record ScoredMovie(Movie movie, double score) {
+    }
+
+    /**
+     * Growable list of slots. Posting lists are kept sorted through {@link #insert} and
+     * {@link #remove}, so both find their position by binary search; {@link #add} appends and is
+     * only used for lists that are never searched.
+     */
+    private static class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private void insert(int value) {
+            if (size == 0 || values[size - 1] < value) {
+                add(value);
+                return;
+            }
+            int index = Arrays.binarySearch(values, 0, size, value);
+            if (index >= 0) {
+                return;
+            }
+            int position = -index - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            System.arraycopy(values, position, values, position + 1, size - position);
+            values[position] = value;
+            size++;
+        }
+
+        private void remove(int value) {
+            int index = Arrays.binarySearch(values, 0, size, value);
+            if (index >= 0) {
+                System.arraycopy(values, index + 1, values, index, size - index - 1);
+                size--;
+            }
+        }
+
+        private int get(int index) {
+            return values[index];
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private void clear() {
+            size = 0;
+        }
+    }
+
+    /**
+     * Pooled score accumulator. {@code creditedTerm} remembers the last query term that credited
+     * each slot; only touched slots are reset after a query.
+     */
+    private static class Scratch {
+        private float[] scores = new float[0];
+        private int[] creditedTerm = new int[0];
+        private final IntList touched = new IntList();
+
+        private void ensureCapacity(int capacity) {
+            if (scores.length < capacity) {
+                scores = new float[capacity];
+                creditedTerm = new int[capacity];
+            }
+        }
+
+        private void credit(IntList slots, int term, float weight) {
+            for (int i = 0; i < slots.size(); i++) {
+                int slot = slots.get(i);
+                if (creditedTerm[slot] == term) {
+                    continue;
+                }
+                if (creditedTerm[slot] == 0) {
+                    touched.add(slot);
+                }
+                creditedTerm[slot] = term;
+                scores[slot] += weight;
+            }
+        }
+
+        private void reset() {
+            for (int i = 0; i < touched.size(); i++) {
+                int slot = touched.get(i);
+                scores[slot] = 0;
+                creditedTerm[slot] = 0;
+            }
+            touched.clear();
+        }
+    }
+}
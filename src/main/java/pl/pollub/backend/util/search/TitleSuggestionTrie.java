@@ -0,0 +1,371 @@
+package pl.pollub.backend.util.search;
+
+import org.springframework.stereotype.Component;
+import pl.pollub.backend.dto.movie.MovieSuggestionDto;
+import pl.pollub.backend.model.movie.Movie;
+import pl.pollub.backend.util.catalog.IMovieChangeListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Radix trie over normalized titles for autocomplete. Every title is inserted under its full text
+ * and under each suffix starting at a word, so "matr" also suggests "The Matrix". Each node keeps
+ * the best {@link #SUGGESTIONS_PER_NODE} movies of its subtree, which makes a lookup a walk down the
+ * prefix followed by a copy. Shorter titles rank first, then newer releases.
+ */
+@Component
+public class TitleSuggestionTrie implements IMovieChangeListener {
+    public static final int SUGGESTIONS_PER_NODE = 10;
+
+    private static final char[] NO_CHARS = new char[0];
+    private static final Node[] NO_NODES = new Node[0];
+    private static final Suggestion[] NO_SUGGESTIONS = new Suggestion[0];
+    private static final Comparator<Suggestion> RELEVANCE = Comparator
+            .comparingInt((Suggestion suggestion) -> suggestion.title().length())
+            .thenComparing(Suggestion::releaseDate, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparingLong(Suggestion::id);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Suggestion> suggestionsById = new HashMap<>();
+    private Node root = new Node(NO_CHARS);
+    private boolean loaded;
+
+    public boolean isLoaded() {
+        lock.readLock().lock();
+        try {
+            return loaded;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void loadIfNeeded(Supplier<? extends Collection<Movie>> source) {
+        if (isLoaded()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (loaded) {
+                return;
+            }
+            clear();
+            for (Movie movie : source.get()) {
+                add(movie);
+            }
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void invalidate() {
+        lock.writeLock().lock();
+        try {
+            clear();
+            loaded = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void movieSaved(Movie movie) {
+        if (movie.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Suggestion held = suggestionsById.get(movie.getId());
+            if (loaded && (held == null || !IMovieChangeListener.isOutdated(movie, held.version()))) {
+                delete(movie.getId());
+                add(movie);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void movieDeleted(Long id) {
+        lock.writeLock().lock();
+        try {
+            if (loaded) {
+                delete(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<MovieSuggestionDto> suggest(String prefix, int limit) {
+        char[] key = TitleNormalizer.normalize(prefix).toCharArray();
+        lock.readLock().lock();
+        try {
+            Node node = find(key);
+            if (node == null) {
+                return List.of();
+            }
+            List<MovieSuggestionDto> suggestions = new ArrayList<>(Math.min(limit, node.top.length));
+            for (int i = 0; i < node.top.length && i < limit; i++) {
+                suggestions.add(new MovieSuggestionDto(node.top[i].id(), node.top[i].title()));
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the node whose subtree holds every key starting with {@code prefix}, or {@code null}.
+     */
+    private Node find(char[] prefix) {
+        Node node = root;
+        int i = 0;
+        while (i < prefix.length) {
+            Node child = node.child(prefix[i]);
+            if (child == null) {
+                return null;
+            }
+            for (int j = 0; j < child.label.length && i < prefix.length; j++, i++) {
+                if (child.label[j] != prefix[i]) {
+                    return null;
+                }
+            }
+            node = child;
+        }
+        return node;
+    }
+
+    private void add(Movie movie) {
+        String title = movie.getTitle() == null ? "" : movie.getTitle();
+        Suggestion suggestion = new Suggestion(movie.getId(), title, movie.getReleaseDate(), movie.getVersion());
+        suggestionsById.put(suggestion.id(), suggestion);
+        for (String key : keys(title)) {
+            insert(key.toCharArray(), suggestion);
+        }
+    }
+
+    private void delete(Long id) {
+        Suggestion suggestion = suggestionsById.remove(id);
+        if (suggestion == null) {
+            return;
+        }
+        for (String key : keys(suggestion.title())) {
+            remove(root, key.toCharArray(), 0, id);
+        }
+    }
+
+    private void insert(char[] key, Suggestion suggestion) {
+        Node node = root;
+        node.offer(suggestion);
+        int i = 0;
+        while (i < key.length) {
+            int index = node.childIndex(key[i]);
+            if (index < 0) {
+                Node leaf = new Node(Arrays.copyOfRange(key, i, key.length));
+                leaf.terminals = new Suggestion[]{suggestion};
+                leaf.top = leaf.terminals;
+                node.addChild(leaf);
+                return;
+            }
+            Node child = node.children[index];
+            int common = 0;
+            while (common < child.label.length && i + common < key.length
+                    && child.label[common] == key[i + common]) {
+                common++;
+            }
+            if (common < child.label.length) {
+                child = split(node, index, common);
+            }
+            i += common;
+            node = child;
+            node.offer(suggestion);
+        }
+        node.terminals = append(node.terminals, suggestion);
+    }
+
+    /**
+     * Removes {@code id} from the terminals of {@code key} and, on the way back up, recomputes the
+     * best suggestions of the nodes that listed it, dropping nodes that became empty and merging
+     * chains. Returns whether {@code node} is now empty.
+     */
+    private boolean remove(Node node, char[] key, int offset, long id) {
+        if (offset == key.length) {
+            node.terminals = without(node.terminals, id);
+        } else {
+            int index = node.childIndex(key[offset]);
+            if (index < 0) {
+                return false;
+            }
+            Node child = node.children[index];
+            if (key.length - offset < child.label.length
+                    || !Arrays.equals(child.label, 0, child.label.length, key, offset, offset + child.label.length)) {
+                return false;
+            }
+            if (remove(child, key, offset + child.label.length, id)) {
+                node.removeChild(index);
+            } else if (child.terminals.length == 0 && child.children.length == 1) {
+                node.children[index] = merge(child);
+            }
+        }
+        if (node.ranks(id)) {
+            node.recomputeTop();
+        }
+        return node != root && node.terminals.length == 0 && node.children.length == 0;
+    }
+
+    private static Node split(Node parent, int index, int length) {
+        Node child = parent.children[index];
+        Node middle = new Node(Arrays.copyOf(child.label, length));
+        child.label = Arrays.copyOfRange(child.label, length, child.label.length);
+        middle.childKeys = new char[]{child.label[0]};
+        middle.children = new Node[]{child};
+        middle.top = child.top;
+        parent.children[index] = middle;
+        return middle;
+    }
+
+    private static Node merge(Node node) {
+        Node child = node.children[0];
+        char[] label = Arrays.copyOf(node.label, node.label.length + child.label.length);
+        System.arraycopy(child.label, 0, label, node.label.length, child.label.length);
+        child.label = label;
+        return child;
+    }
+
+    private static String[] keys(String title) {
+        String[] words = TitleNormalizer.words(title);
+        Set<String> keys = new LinkedHashSet<>();
+        for (int i = 0; i < words.length; i++) {
+            keys.add(String.join(" ", Arrays.asList(words).subList(i, words.length)));
+        }
+        return keys.toArray(new String[0]);
+    }
+
+    private static Suggestion[] append(Suggestion[] suggestions, Suggestion suggestion) {
+        Suggestion[] result = Arrays.copyOf(suggestions, suggestions.length + 1);
+        result[suggestions.length] = suggestion;
+        return result;
+    }
+
+    private static Suggestion[] without(Suggestion[] suggestions, long id) {
+        return Arrays.stream(suggestions)
+                .filter(suggestion -> suggestion.id() != id)
+                .toArray(Suggestion[]::new);
+    }
+
+    private void clear() {
+        suggestionsById.clear();
+        root = new Node(NO_CHARS);
+    }
+
+    private record Suggestion(long id, String title, LocalDate releaseDate, Long version) {
+    }
+
+    private static final class Node {
+        private char[] label;
+        private char[] childKeys = NO_CHARS;
+        private Node[] children = NO_NODES;
+        private Suggestion[] terminals = NO_SUGGESTIONS;
+        private Suggestion[] top = NO_SUGGESTIONS;
+
+        private Node(char[] label) {
+            this.label = label;
+        }
+
+        private int childIndex(char c) {
+            return Arrays.binarySearch(childKeys, c);
+        }
+
+        private Node child(char c) {
+            int index = childIndex(c);
+            return index < 0 ? null : children[index];
+        }
+
+        private void addChild(Node child) {
+            int insertion = -childIndex(child.label[0]) - 1;
+            char[] keys = new char[childKeys.length + 1];
+            Node[] nodes = new Node[children.length + 1];
+            System.arraycopy(childKeys, 0, keys, 0, insertion);
+            System.arraycopy(children, 0, nodes, 0, insertion);
+            keys[insertion] = child.label[0];
+            nodes[insertion] = child;
+            System.arraycopy(childKeys, insertion, keys, insertion + 1, childKeys.length - insertion);
+            System.arraycopy(children, insertion, nodes, insertion + 1, children.length - insertion);
+            childKeys = keys;
+            children = nodes;
+        }
+
+        private void removeChild(int index) {
+            char[] keys = new char[childKeys.length - 1];
+            Node[] nodes = new Node[children.length - 1];
+            System.arraycopy(childKeys, 0, keys, 0, index);
+            System.arraycopy(children, 0, nodes, 0, index);
+            System.arraycopy(childKeys, index + 1, keys, index, keys.length - index);
+            System.arraycopy(children, index + 1, nodes, index, nodes.length - index);
+            childKeys = keys;
+            children = nodes;
+        }
+
+        private boolean ranks(long id) {
+            for (Suggestion suggestion : top) {
+                if (suggestion.id() == id) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Adds {@code suggestion} to the best suggestions of this subtree if it ranks high enough.
+         */
+        private void offer(Suggestion suggestion) {
+            if (ranks(suggestion.id())) {
+                return;
+            }
+            int position = Arrays.binarySearch(top, suggestion, RELEVANCE);
+            int insertion = position < 0 ? -position - 1 : position;
+            if (insertion >= SUGGESTIONS_PER_NODE) {
+                return;
+            }
+            int size = Math.min(top.length + 1, SUGGESTIONS_PER_NODE);
+            Suggestion[] result = new Suggestion[size];
+            System.arraycopy(top, 0, result, 0, insertion);
+            result[insertion] = suggestion;
+            System.arraycopy(top, insertion, result, insertion + 1, size - insertion - 1);
+            top = result;
+        }
+
+        private void recomputeTop() {
+            List<Suggestion> candidates = new ArrayList<>(Arrays.asList(terminals));
+            for (Node child : children) {
+                candidates.addAll(Arrays.asList(child.top));
+            }
+            candidates.sort(RELEVANCE);
+            Set<Long> seen = new HashSet<>();
+            List<Suggestion> best = new ArrayList<>(SUGGESTIONS_PER_NODE);
+            for (Suggestion candidate : candidates) {
+                if (best.size() == SUGGESTIONS_PER_NODE) {
+                    break;
+                }
+                if (seen.add(candidate.id())) {
+                    best.add(candidate);
+                }
+            }
+            top = best.toArray(NO_SUGGESTIONS);
+        }
+    }
+}
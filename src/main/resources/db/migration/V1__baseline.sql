@@ -0,0 +1,15 @@
+-- Schema as previously generated by hibernate.ddl-auto=update. Databases created that way are
+-- baselined at this version and start migrating from V2.
+CREATE TABLE movie (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title        VARCHAR(255),
+    genre        VARCHAR(255),
+    release_date DATE
+);
+
+CREATE TABLE users (
+    id       BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    CONSTRAINT uk_users_username UNIQUE (username)
+);
@@ -0,0 +1,24 @@
+CREATE TABLE genre (
+    id   INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    code VARCHAR(255) NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    CONSTRAINT uk_genre_code UNIQUE (code)
+);
+
+INSERT INTO genre (code, name)
+SELECT LOWER(TRIM(genre)), MIN(TRIM(genre))
+FROM movie
+WHERE genre IS NOT NULL
+GROUP BY LOWER(TRIM(genre));
+
+ALTER TABLE movie ADD COLUMN genre_id INTEGER;
+
+UPDATE movie
+SET genre_id = (SELECT g.id FROM genre g WHERE g.code = LOWER(TRIM(movie.genre)))
+WHERE genre IS NOT NULL;
+
+ALTER TABLE movie DROP COLUMN genre;
+
+ALTER TABLE movie ADD CONSTRAINT fk_movie_genre FOREIGN KEY (genre_id) REFERENCES genre (id);
+
+CREATE INDEX idx_movie_genre_id ON movie (genre_id);
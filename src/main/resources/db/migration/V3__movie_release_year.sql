@@ -0,0 +1,9 @@
+ALTER TABLE movie ADD COLUMN release_year INTEGER;
+
+UPDATE movie
+SET release_year = EXTRACT(YEAR FROM release_date)
+WHERE release_date IS NOT NULL;
+
+CREATE INDEX idx_movie_release_year ON movie (release_year);
+
+CREATE INDEX idx_movie_release_date_id ON movie (release_date, id);
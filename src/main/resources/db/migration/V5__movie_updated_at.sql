@@ -0,0 +1,5 @@
+ALTER TABLE movie ADD COLUMN updated_at TIMESTAMP(6) WITH TIME ZONE;
+
+UPDATE movie SET updated_at = CURRENT_TIMESTAMP;
+
+ALTER TABLE movie ALTER COLUMN updated_at SET NOT NULL;
@@ -0,0 +1 @@
+ALTER TABLE movie ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,142 @@
+package pl.pollub.backend.benchmark;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import pl.pollub.backend.dto.movie.MovieDto;
+import pl.pollub.backend.repository.movie.IMovieRepository;
+import pl.pollub.backend.service.auth.JwtUserDetailsService;
+import pl.pollub.backend.service.movie.IMovieWriter;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Samples Hikari pool occupancy while concurrent clients page through {@code GET /api/movies}.
+ * Compare the default run with {@code -Dspring.jpa.open-in-view=true} to see how long connections
+ * are held while the response is serialized. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "spring.datasource.hikari.maximum-pool-size=8"})
+@AutoConfigureMockMvc
+@Import(JwtUserDetailsService.class)
+@ActiveProfiles("test")
+class ConnectionOccupancyBenchmark {
+    private static final String[] GENRES = {"Action", "Drama", "Comedy", "Sci-Fi", "Horror", "Thriller"};
+    private static final int MOVIES = 20_000;
+    private static final int CLIENTS = 8;
+    private static final int WARMUP_REQUESTS = 20;
+    private static final int REQUESTS_PER_CLIENT = 100;
+    private static final long SAMPLE_INTERVAL_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private IMovieWriter movieWriter;
+
+    @Autowired
+    private IMovieRepository movieRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${spring.jpa.open-in-view}")
+    private boolean openInView;
+
+    @Test
+    void pageThroughMoviesConcurrently() throws Exception {
+        insertMovies();
+        HikariPoolMXBean pool = dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            run(clients, WARMUP_REQUESTS);
+
+            AtomicBoolean running = new AtomicBoolean(true);
+            long[] samples = new long[3];
+            Thread sampler = Thread.ofPlatform().start(() -> {
+                while (running.get()) {
+                    int active = pool.getActiveConnections();
+                    samples[0]++;
+                    samples[1] += active;
+                    samples[2] += pool.getThreadsAwaitingConnection();
+                    LockSupport.parkNanos(SAMPLE_INTERVAL_NANOS);
+                }
+            });
+
+            long start = System.nanoTime();
+            long[] latencies = run(clients, REQUESTS_PER_CLIENT);
+            double elapsed = (System.nanoTime() - start) / 1e9;
+            running.set(false);
+            sampler.join();
+
+            Arrays.sort(latencies);
+            System.out.printf("open-in-view=%s pool=%d clients=%d requests=%d%n",
+                    openInView, pool.getTotalConnections(), CLIENTS, latencies.length);
+            System.out.printf("%14s %14s %10s %10s %10s%n", "avg active", "avg waiting", "req/s", "p50[ms]", "p99[ms]");
+            System.out.printf("%14.2f %14.2f %10.0f %10.2f %10.2f%n",
+                    (double) samples[1] / samples[0], (double) samples[2] / samples[0],
+                    latencies.length / elapsed,
+                    latencies[latencies.length / 2] / 1e6, latencies[latencies.length * 99 / 100] / 1e6);
+        } finally {
+            clients.shutdown();
+            movieRepository.deleteAllInBatch();
+        }
+    }
+
+    private long[] run(ExecutorService clients, int requestsPerClient) throws Exception {
+        List<Future<long[]>> results = new ArrayList<>(CLIENTS);
+        for (int client = 0; client < CLIENTS; client++) {
+            long firstAfter = (long) client * (MOVIES / CLIENTS);
+            results.add(clients.submit(() -> {
+                long[] latencies = new long[requestsPerClient];
+                for (int i = 0; i < requestsPerClient; i++) {
+                    long start = System.nanoTime();
+                    mockMvc.perform(get("/api/movies")
+                                    .param("after", String.valueOf(firstAfter + i % 10 * 100))
+                                    .param("limit", "1000")
+                                    .with(user("benchmark")))
+                            .andExpect(status().isOk());
+                    latencies[i] = System.nanoTime() - start;
+                }
+                return latencies;
+            }));
+        }
+        long[] all = new long[CLIENTS * requestsPerClient];
+        for (int client = 0; client < CLIENTS; client++) {
+            System.arraycopy(results.get(client).get(), 0, all, client * requestsPerClient, requestsPerClient);
+        }
+        return all;
+    }
+
+    private void insertMovies() {
+        for (int from = 0; from < MOVIES; from += 1_000) {
+            List<MovieDto> batch = new ArrayList<>(1_000);
+            for (int i = from; i < from + 1_000; i++) {
+                batch.add(new MovieDto("Movie " + i, GENRES[i % GENRES.length], LocalDate.of(1980 + i % 45, 1 + i % 12, 1)));
+            }
+            movieWriter.saveMovies(batch);
+        }
+    }
+}
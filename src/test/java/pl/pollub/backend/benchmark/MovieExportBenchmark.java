@@ -0,0 +1,119 @@
+package pl.pollub.backend.benchmark;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import pl.pollub.backend.dto.movie.MovieDto;
+import pl.pollub.backend.model.movie.Movie;
+import pl.pollub.backend.repository.movie.IMovieRepository;
+import pl.pollub.backend.service.auth.JwtUserDetailsService;
+import pl.pollub.backend.service.movie.IMovieExporter;
+import pl.pollub.backend.service.movie.IMovieReader;
+import pl.pollub.backend.service.movie.IMovieWriter;
+import pl.pollub.backend.util.export.MovieExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares the CPU time and output size of exporting the whole table as NDJSON entities, CSV and
+ * the binary format. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@Import(JwtUserDetailsService.class)
+@ActiveProfiles("test")
+class MovieExportBenchmark {
+    private static final String[] GENRES = {"Action", "Drama", "Comedy", "Sci-Fi", "Horror", "Thriller"};
+    private static final int MOVIES = 100_000;
+    private static final int ROUNDS = 3;
+
+    @Autowired
+    private IMovieWriter movieWriter;
+
+    @Autowired
+    private IMovieReader movieReader;
+
+    @Autowired
+    private IMovieExporter movieExporter;
+
+    @Autowired
+    private IMovieRepository movieRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void jsonVersusCsvVersusBinaryExport() throws IOException {
+        insertMovies();
+        ObjectWriter jsonWriter = objectMapper.writerFor(Movie.class).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        System.out.printf("movies=%d%n%8s %12s %12s%n", MOVIES, "format", "cpu[ms]", "bytes");
+        for (int round = 0; round <= ROUNDS; round++) {
+            boolean report = round == ROUNDS;
+            measure("ndjson", report, output -> movieReader.streamAllMovies(movie -> {
+                try {
+                    jsonWriter.writeValue(output, movie);
+                    output.write('\n');
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }));
+            measure("csv", report, output -> movieExporter.exportMovies(MovieExportFormat.CSV, output));
+            measure("binary", report, output -> movieExporter.exportMovies(MovieExportFormat.BINARY, output));
+        }
+        movieRepository.deleteAllInBatch();
+    }
+
+    private void insertMovies() {
+        for (int from = 0; from < MOVIES; from += 1_000) {
+            List<MovieDto> batch = new ArrayList<>(1_000);
+            for (int i = from; i < from + 1_000; i++) {
+                batch.add(new MovieDto("Movie " + i, GENRES[i % GENRES.length], LocalDate.of(1980 + i % 45, 1 + i % 12, 1)));
+            }
+            movieWriter.saveMovies(batch);
+        }
+    }
+
+    private static void measure(String format, boolean report, Export export) throws IOException {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        CountingOutputStream output = new CountingOutputStream();
+        long start = threads.getCurrentThreadCpuTime();
+        export.run(output);
+        long cpuNanos = threads.getCurrentThreadCpuTime() - start;
+        if (report) {
+            System.out.printf("%8s %12.1f %12d%n", format, cpuNanos / 1_000_000.0, output.count);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Export {
+        void run(OutputStream output) throws IOException;
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
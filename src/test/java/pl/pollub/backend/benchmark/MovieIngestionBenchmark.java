@@ -0,0 +1,75 @@
+package pl.pollub.backend.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import pl.pollub.backend.dto.movie.MovieDto;
+import pl.pollub.backend.repository.movie.IMovieRepository;
+import pl.pollub.backend.service.auth.JwtUserDetailsService;
+import pl.pollub.backend.service.movie.IMovieWriter;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares one-by-one saves with the batch endpoint's service method on the embedded database.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true"})
+@Import(JwtUserDetailsService.class)
+@ActiveProfiles("test")
+class MovieIngestionBenchmark {
+    private static final String[] GENRES = {"Action", "Drama", "Comedy", "Sci-Fi", "Horror", "Thriller"};
+    private static final int MOVIES = 5_000;
+    private static final int BATCH_SIZE = 1_000;
+
+    @Autowired
+    private IMovieWriter movieWriter;
+
+    @Autowired
+    private IMovieRepository movieRepository;
+
+    @Test
+    void singleSavesVersusBatch() {
+        List<MovieDto> movies = movies();
+        movieWriter.saveMovies(movies.subList(0, 100));
+        movieRepository.deleteAllInBatch();
+
+        long start = System.nanoTime();
+        movies.forEach(movieWriter::saveMovie);
+        double singleMillis = (System.nanoTime() - start) / 1_000_000.0;
+        assertEquals(MOVIES, movieRepository.count());
+        movieRepository.deleteAllInBatch();
+
+        start = System.nanoTime();
+        for (int from = 0; from < MOVIES; from += BATCH_SIZE) {
+            movieWriter.saveMovies(movies.subList(from, Math.min(from + BATCH_SIZE, MOVIES)));
+        }
+        double batchMillis = (System.nanoTime() - start) / 1_000_000.0;
+        assertEquals(MOVIES, movieRepository.count());
+        movieRepository.deleteAllInBatch();
+
+        System.out.printf("movies=%d single=%.1fms (%.0f/s) batch=%.1fms (%.0f/s) speedup=%.2f%n",
+                MOVIES, singleMillis, MOVIES / singleMillis * 1000, batchMillis, MOVIES / batchMillis * 1000,
+                singleMillis / batchMillis);
+    }
+
+    private static List<MovieDto> movies() {
+        List<MovieDto> movies = new ArrayList<>(MOVIES);
+        for (int i = 0; i < MOVIES; i++) {
+            movies.add(new MovieDto("Movie " + i, GENRES[i % GENRES.length],
+                    LocalDate.of(1980 + i % 45, 1 + i % 12, 1)));
+        }
+        return movies;
+    }
+}
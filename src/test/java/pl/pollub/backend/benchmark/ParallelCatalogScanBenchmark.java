@@ -0,0 +1,80 @@
+package pl.pollub.backend.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import pl.pollub.backend.model.movie.Movie;
+import pl.pollub.backend.util.catalog.MovieCatalog;
+import pl.pollub.backend.util.filter.Filter;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares sequential and fork/join scans of catalogs of growing size, for a filter without an
+ * index, to locate the row count from which {@code movies.catalog.parallel-scan-threshold} should
+ * send scans to the pool. The crossover depends on the core count, which is printed with the
+ * results. Run with {@code mvn test -Pbenchmark -Dtest=ParallelCatalogScanBenchmark -DargLine=-Xmx3g}.
+ */
+@Tag("benchmark")
+class ParallelCatalogScanBenchmark {
+    private static final String[] GENRES = {"Action", "Drama", "Comedy", "Sci-Fi", "Horror", "Thriller"};
+    private static final int[] SIZES = {4_000, 16_000, 64_000, 256_000, 1_000_000};
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 20;
+
+    @Test
+    void sequentialVersusParallelScan() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        Filter filter = new Filter() {
+            @Override
+            public Movie[] filter(Movie[] movies) {
+                return Arrays.stream(movies).filter(movie -> movie.getTitle().endsWith("7")).toArray(Movie[]::new);
+            }
+        };
+
+        System.out.printf("cores=%d%n%10s %15s %15s %8s%n", cores, "rows", "sequential[us]", "parallel[us]", "speedup");
+        for (int size : SIZES) {
+            Movie[] movies = movies(size);
+            MovieCatalog sequential = new MovieCatalog(true, 1, Integer.MAX_VALUE);
+            MovieCatalog parallel = new MovieCatalog(true, cores, 1);
+            sequential.loadIfNeeded(() -> Arrays.asList(movies));
+            parallel.loadIfNeeded(() -> Arrays.asList(movies));
+            assertEquals(sequential.query(filter).orElseThrow().length, parallel.query(filter).orElseThrow().length);
+
+            double sequentialMicros = measure(sequential, filter);
+            double parallelMicros = measure(parallel, filter);
+            System.out.printf("%10d %15.1f %15.1f %8.2f%n",
+                    size, sequentialMicros, parallelMicros, sequentialMicros / parallelMicros);
+            sequential.destroy();
+            parallel.destroy();
+        }
+    }
+
+    private static double measure(MovieCatalog catalog, Filter filter) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            catalog.query(filter);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            catalog.query(filter);
+        }
+        return (System.nanoTime() - start) / 1e3 / MEASURED_ROUNDS;
+    }
+
+    private static Movie[] movies(int size) {
+        Random random = new Random(42);
+        Movie[] movies = new Movie[size];
+        for (int i = 0; i < size; i++) {
+            movies[i] = Movie.builder()
+                    .id((long) i + 1)
+                    .title("Movie " + i)
+                    .genre(GENRES[random.nextInt(GENRES.length)])
+                    .releaseDate(LocalDate.of(1980 + random.nextInt(45), 1 + random.nextInt(12), 1))
+                    .build();
+        }
+        return movies;
+    }
+}
@@ -0,0 +1,161 @@
+package pl.pollub.backend.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import pl.pollub.backend.config.JwtTokenUtil;
+import pl.pollub.backend.config.ReactiveMovieServer;
+import pl.pollub.backend.dto.auth.UserDto;
+import pl.pollub.backend.dto.movie.MovieDto;
+import pl.pollub.backend.repository.auth.IUserRepository;
+import pl.pollub.backend.repository.movie.IMovieRepository;
+import pl.pollub.backend.service.auth.JwtUserDetailsService;
+import pl.pollub.backend.service.movie.IMovieWriter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Opens many concurrent slow NDJSON listings, each client reading a small chunk and pausing, against
+ * the reactive Netty server and against the servlet endpoint on Tomcat. Reports the peak number of
+ * platform threads in the JVM (the clients run on virtual threads and are not counted) and how many
+ * streams completed. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.jpa.show-sql=false", "movies.reactive.enabled=true"})
+@Import(JwtUserDetailsService.class)
+@ActiveProfiles("test")
+class ReactiveSlowClientsBenchmark {
+    private static final int MOVIES = 2_000;
+    private static final int CLIENTS = 1_000;
+    private static final int CHUNK_BYTES = 16 * 1024;
+    private static final long PAUSE_MILLIS = 20;
+    private static final long TIMEOUT_SECONDS = 120;
+
+    @LocalServerPort
+    private int servletPort;
+
+    @Autowired
+    private ReactiveMovieServer reactiveMovieServer;
+
+    @Autowired
+    private IMovieWriter movieWriter;
+
+    @Autowired
+    private IMovieRepository movieRepository;
+
+    @Autowired
+    private JwtUserDetailsService userDetailsService;
+
+    @Autowired
+    private IUserRepository userRepository;
+
+    @Autowired
+    private JwtTokenUtil jwtTokenUtil;
+
+    @Test
+    void streamToManySlowClients() throws Exception {
+        insertMovies();
+        userDetailsService.saveUser(new UserDto("benchmark", "benchmark-password"));
+        String token = jwtTokenUtil.generateToken(userDetailsService.loadUserByUsername("benchmark"));
+
+        System.out.printf("movies=%d clients=%d chunk=%d B pause=%d ms%n", MOVIES, CLIENTS, CHUNK_BYTES, PAUSE_MILLIS);
+        System.out.printf("%10s %14s %14s %10s %10s%n", "server", "base threads", "peak threads", "completed", "time[s]");
+        try {
+            measure("reactive", reactiveMovieServer.getPort(), token);
+            measure("servlet", servletPort, token);
+        } finally {
+            movieRepository.deleteAllInBatch();
+            userRepository.deleteAll();
+        }
+    }
+
+    private void measure(String server, int port, String token) throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        int baseThreads = threads.getThreadCount();
+        AtomicBoolean running = new AtomicBoolean(true);
+        int[] peakThreads = {baseThreads};
+        Thread sampler = Thread.ofPlatform().start(() -> {
+            while (running.get()) {
+                peakThreads[0] = Math.max(peakThreads[0], threads.getThreadCount());
+                sleep(10);
+            }
+        });
+
+        long start = System.nanoTime();
+        int completed = 0;
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Boolean>> results = new ArrayList<>(CLIENTS);
+            for (int i = 0; i < CLIENTS; i++) {
+                results.add(clients.submit(() -> readSlowly(port, token)));
+            }
+            for (Future<Boolean> result : results) {
+                if (result.get(TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    completed++;
+                }
+            }
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        running.set(false);
+        sampler.join();
+        // the sampler itself is one of the threads counted at its peak
+        System.out.printf("%10s %14d %14d %10d %10.1f%n", server, baseThreads, peakThreads[0] - 1, completed, elapsed);
+    }
+
+    private static boolean readSlowly(int port, String token) {
+        try (Socket socket = new Socket("localhost", port)) {
+            OutputStream output = socket.getOutputStream();
+            output.write(("GET /api/movies HTTP/1.1\r\nHost: localhost\r\nAccept: application/x-ndjson\r\n"
+                    + "Authorization: Bearer " + token + "\r\nConnection: close\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+            output.flush();
+            InputStream input = socket.getInputStream();
+            byte[] chunk = new byte[CHUNK_BYTES];
+            byte[] status = new byte[12];
+            if (input.readNBytes(status, 0, status.length) < status.length
+                    || !new String(status, StandardCharsets.US_ASCII).endsWith("200")) {
+                return false;
+            }
+            while (input.read(chunk) >= 0) {
+                sleep(PAUSE_MILLIS);
+            }
+            return true;
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void insertMovies() {
+        List<MovieDto> batch = new ArrayList<>(MOVIES);
+        for (int i = 0; i < MOVIES; i++) {
+            batch.add(new MovieDto("Movie " + i, "Drama", LocalDate.of(1980 + i % 45, 1 + i % 12, 1)));
+        }
+        movieWriter.saveMovies(batch);
+    }
+}
@@ -0,0 +1,62 @@
+package pl.pollub.backend.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import pl.pollub.backend.model.movie.Movie;
+import pl.pollub.backend.util.catalog.MovieCatalog;
+import pl.pollub.backend.util.filter.ReleaseDateFilter;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares release-date range lookups on the sorted catalog index against a scan over a million
+ * movies. Run with {@code mvn test -Pbenchmark -Dtest=ReleaseDateRangeBenchmark -DargLine=-Xmx3g}.
+ */
+@Tag("benchmark")
+class ReleaseDateRangeBenchmark {
+    private static final int MOVIES = 1_000_000;
+    private static final LocalDate FIRST_DAY = LocalDate.of(1920, 1, 1);
+    private static final int DAYS = 100 * 365;
+    private static final int[] RANGE_DAYS = {1, 7, 365};
+    private static final int ROUNDS = 200;
+
+    @Test
+    void rangeLookupVersusScanAtOneMillionMovies() {
+        Random random = new Random(42);
+        Movie[] movies = new Movie[MOVIES];
+        for (int i = 0; i < MOVIES; i++) {
+            movies[i] = Movie.builder().id((long) i + 1).title("Movie " + i).genre("Drama")
+                    .releaseDate(FIRST_DAY.plusDays(random.nextInt(DAYS))).build();
+        }
+        MovieCatalog catalog = new MovieCatalog(true, 1, Integer.MAX_VALUE);
+        catalog.loadIfNeeded(() -> Arrays.asList(movies));
+
+        System.out.printf("%10s %12s %12s %10s%n", "range[d]", "index[us]", "scan[us]", "matches");
+        for (int rangeDays : RANGE_DAYS) {
+            LocalDate from = FIRST_DAY.plusDays(DAYS / 2);
+            ReleaseDateFilter filter = new ReleaseDateFilter(from, from.plusDays(rangeDays - 1));
+            int matches = catalog.countReleasedBetween(from, from.plusDays(rangeDays - 1));
+            for (int i = 0; i < ROUNDS * 10; i++) {
+                catalog.query(filter, Long.MIN_VALUE, 100);
+            }
+            for (int i = 0; i < ROUNDS; i++) {
+                filter.filter(movies);
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < ROUNDS; i++) {
+                catalog.query(filter, Long.MIN_VALUE, 100);
+            }
+            double index = (System.nanoTime() - start) / 1e3 / ROUNDS;
+            start = System.nanoTime();
+            for (int i = 0; i < ROUNDS; i++) {
+                assertEquals(matches, filter.filter(movies).length);
+            }
+            double scan = (System.nanoTime() - start) / 1e3 / ROUNDS;
+            System.out.printf("%10d %12.1f %12.1f %10d%n", rangeDays, index, scan, matches);
+        }
+    }
+}
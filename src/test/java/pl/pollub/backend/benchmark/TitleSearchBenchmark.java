@@ -0,0 +1,61 @@
+package pl.pollub.backend.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import pl.pollub.backend.model.movie.Movie;
+import pl.pollub.backend.util.search.TitleSearchIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Measures search latency over a million generated titles. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class TitleSearchBenchmark {
+    private static final String[] WORDS = {
+            "the", "dark", "knight", "return", "of", "king", "star", "wars", "empire", "strikes", "back",
+            "lord", "rings", "fellowship", "matrix", "reloaded", "inception", "interstellar", "godfather",
+            "pulp", "fiction", "fight", "club", "forrest", "gump", "silence", "lambs", "seven", "samurai",
+            "spirited", "away", "city", "god", "life", "beautiful", "green", "mile", "prestige", "departed"};
+    private static final int TITLES = 1_000_000;
+    private static final String[] QUERIES = {"matrix", "the dark knight", "interstelar", "godfahter part", "lord of the rings"};
+    private static final int ROUNDS = 50;
+
+    @Test
+    void searchLatencyAtOneMillionTitles() {
+        TitleSearchIndex index = new TitleSearchIndex(1);
+        long start = System.nanoTime();
+        index.loadIfNeeded(TitleSearchBenchmark::movies);
+        System.out.printf("titles=%d load=%.0fms%n%20s %12s%n", TITLES, (System.nanoTime() - start) / 1e6, "query", "avg[ms]");
+
+        for (String query : QUERIES) {
+            for (int i = 0; i < ROUNDS; i++) {
+                index.search(query, 20);
+            }
+            start = System.nanoTime();
+            for (int i = 0; i < ROUNDS; i++) {
+                assertFalse(index.search(query, 20).isEmpty());
+            }
+            System.out.printf("%20s %12.2f%n", query, (System.nanoTime() - start) / 1e6 / ROUNDS);
+        }
+    }
+
+    private static List<Movie> movies() {
+        Random random = new Random(42);
+        List<Movie> movies = new ArrayList<>(TITLES);
+        for (int i = 0; i < TITLES; i++) {
+            StringBuilder title = new StringBuilder();
+            int words = 1 + random.nextInt(4);
+            for (int w = 0; w < words; w++) {
+                title.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+            }
+            title.append(i);
+            movies.add(Movie.builder().id((long) i + 1).title(title.toString()).genre("Drama").build());
+        }
+        return movies;
+    }
+}
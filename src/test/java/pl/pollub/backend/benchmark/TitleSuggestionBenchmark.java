@@ -0,0 +1,99 @@
+package pl.pollub.backend.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import pl.pollub.backend.model.movie.Movie;
+import pl.pollub.backend.util.search.TitleSuggestionTrie;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Measures suggestion and patch latency percentiles over a million generated titles. Run with
+ * {@code mvn test -Pbenchmark -Dtest=TitleSuggestionBenchmark -DargLine=-Xmx3g}.
+ */
+@Tag("benchmark")
+class TitleSuggestionBenchmark {
+    private static final String[] WORDS = {
+            "the", "dark", "knight", "return", "of", "king", "star", "wars", "empire", "strikes", "back",
+            "lord", "rings", "fellowship", "matrix", "reloaded", "inception", "interstellar", "godfather",
+            "pulp", "fiction", "fight", "club", "forrest", "gump", "silence", "lambs", "seven", "samurai",
+            "spirited", "away", "city", "god", "life", "beautiful", "green", "mile", "prestige", "departed"};
+    private static final int TITLES = 1_000_000;
+    private static final int QUERIES = 200_000;
+    private static final int UPDATES = 20_000;
+
+    @Test
+    void suggestLatencyAtOneMillionTitles() {
+        Random random = new Random(7);
+        TitleSuggestionTrie trie = new TitleSuggestionTrie();
+        List<Movie> movies = movies();
+        System.gc();
+        long heapBefore = usedHeap();
+        long start = System.nanoTime();
+        trie.loadIfNeeded(() -> movies);
+        System.out.printf("titles=%d load=%.0fms heap~%dMB%n", TITLES, (System.nanoTime() - start) / 1e6,
+                (usedHeap() - heapBefore) >> 20);
+
+        String[] prefixes = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            prefixes[i] = word.substring(0, 1 + random.nextInt(word.length()));
+        }
+        for (String prefix : prefixes) {
+            trie.suggest(prefix, 10);
+        }
+        long[] latencies = new long[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            long begin = System.nanoTime();
+            assertFalse(trie.suggest(prefixes[i], 10).isEmpty());
+            latencies[i] = System.nanoTime() - begin;
+        }
+        print("suggest", latencies);
+
+        long[] patches = new long[UPDATES];
+        for (int i = 0; i < UPDATES; i++) {
+            Movie movie = movies.get(random.nextInt(TITLES));
+            long begin = System.nanoTime();
+            trie.movieDeleted(movie.getId());
+            trie.movieSaved(movie);
+            patches[i] = System.nanoTime() - begin;
+        }
+        print("delete+save", patches);
+    }
+
+    private static void print(String operation, long[] latencies) {
+        Arrays.sort(latencies);
+        System.out.printf("%12s p50=%.1fus p99=%.1fus p999=%.1fus max=%.1fus%n", operation,
+                percentile(latencies, 0.50), percentile(latencies, 0.99), percentile(latencies, 0.999),
+                latencies[latencies.length - 1] / 1e3);
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)] / 1e3;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static List<Movie> movies() {
+        Random random = new Random(42);
+        List<Movie> movies = new ArrayList<>(TITLES);
+        for (int i = 0; i < TITLES; i++) {
+            StringBuilder title = new StringBuilder();
+            int words = 1 + random.nextInt(4);
+            for (int w = 0; w < words; w++) {
+                title.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+            }
+            title.append(i);
+            movies.add(Movie.builder().id((long) i + 1).title(title.toString()).genre("Drama").build());
+        }
+        return movies;
+    }
+}
@@ -0,0 +1,174 @@
+package pl.pollub.backend.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import pl.pollub.backend.config.JwtTokenUtil;
+import pl.pollub.backend.config.VirtualThreadPinningMonitor;
+import pl.pollub.backend.dto.auth.UserDto;
+import pl.pollub.backend.dto.movie.MovieDto;
+import pl.pollub.backend.model.movie.Movie;
+import pl.pollub.backend.repository.auth.IUserRepository;
+import pl.pollub.backend.service.auth.JwtUserDetailsService;
+import pl.pollub.backend.service.movie.IMovieWriter;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Drives the embedded Tomcat with many concurrent authenticated clients while every connection
+ * checkout waits {@code LATENCY_MILLIS}, standing in for a Postgres round trip. Compare the default
+ * run with {@code -Dspring.threads.virtual.enabled=true}. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.jpa.show-sql=false")
+@Import({JwtUserDetailsService.class, VirtualThreadLoadBenchmark.SlowDatabaseConfig.class})
+@ActiveProfiles("test")
+class VirtualThreadLoadBenchmark {
+    private static final long LATENCY_MILLIS = 10;
+    private static final int MOVIES = 1_000;
+    private static final int CLIENTS = 400;
+    private static final int WARMUP_REQUESTS = 5;
+    private static final int REQUESTS_PER_CLIENT = 20;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private IMovieWriter movieWriter;
+
+    @Autowired
+    private JwtUserDetailsService userDetailsService;
+
+    @Autowired
+    private IUserRepository userRepository;
+
+    @Autowired
+    private JwtTokenUtil jwtTokenUtil;
+
+    @Autowired
+    private ObjectProvider<VirtualThreadPinningMonitor> pinningMonitor;
+
+    @Value("${spring.threads.virtual.enabled}")
+    private boolean virtualThreads;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size}")
+    private int poolSize;
+
+    @Test
+    void readMoviesUnderHighConcurrency() throws Exception {
+        List<Long> ids = insertMovies();
+        userDetailsService.saveUser(new UserDto("benchmark", "benchmark-password"));
+        String token = jwtTokenUtil.generateToken(userDetailsService.loadUserByUsername("benchmark"));
+
+        try (HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+             ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            run(client, clients, token, ids, WARMUP_REQUESTS);
+
+            long start = System.nanoTime();
+            long[] latencies = run(client, clients, token, ids, REQUESTS_PER_CLIENT);
+            double elapsed = (System.nanoTime() - start) / 1e9;
+
+            Arrays.sort(latencies);
+            System.out.printf("virtual-threads=%s pool=%d clients=%d requests=%d db-latency=%d ms pinned=%s%n",
+                    virtualThreads, poolSize, CLIENTS, latencies.length, LATENCY_MILLIS,
+                    pinningMonitor.stream().map(monitor -> String.valueOf(monitor.getPinnedCount()))
+                            .findFirst().orElse("n/a"));
+            System.out.printf("%10s %10s %10s %10s%n", "req/s", "p50[ms]", "p99[ms]", "max[ms]");
+            System.out.printf("%10.0f %10.1f %10.1f %10.1f%n", latencies.length / elapsed,
+                    latencies[latencies.length / 2] / 1e6, latencies[latencies.length * 99 / 100] / 1e6,
+                    latencies[latencies.length - 1] / 1e6);
+        } finally {
+            userRepository.deleteAll();
+        }
+    }
+
+    private long[] run(HttpClient client, ExecutorService clients, String token, List<Long> ids,
+                       int requestsPerClient) throws Exception {
+        List<Future<long[]>> results = new ArrayList<>(CLIENTS);
+        for (int c = 0; c < CLIENTS; c++) {
+            int offset = c;
+            results.add(clients.submit(() -> {
+                long[] latencies = new long[requestsPerClient];
+                for (int i = 0; i < requestsPerClient; i++) {
+                    HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port
+                                    + "/api/movies/" + ids.get((offset * requestsPerClient + i) % ids.size())))
+                            .header("Authorization", "Bearer " + token)
+                            .build();
+                    long start = System.nanoTime();
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    latencies[i] = System.nanoTime() - start;
+                    assertEquals(200, response.statusCode());
+                }
+                return latencies;
+            }));
+        }
+        long[] all = new long[CLIENTS * requestsPerClient];
+        for (int c = 0; c < CLIENTS; c++) {
+            System.arraycopy(results.get(c).get(), 0, all, c * requestsPerClient, requestsPerClient);
+        }
+        return all;
+    }
+
+    private List<Long> insertMovies() {
+        List<MovieDto> batch = new ArrayList<>(MOVIES);
+        for (int i = 0; i < MOVIES; i++) {
+            batch.add(new MovieDto("Movie " + i, "Drama", LocalDate.of(1980 + i % 45, 1 + i % 12, 1)));
+        }
+        return movieWriter.saveMovies(batch).getSaved().stream().map(Movie::getId).toList();
+    }
+
+    @TestConfiguration
+    static class SlowDatabaseConfig {
+
+        @Bean
+        static BeanPostProcessor slowDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof DataSource dataSource)) {
+                        return bean;
+                    }
+                    return new DelegatingDataSource(dataSource) {
+                        @Override
+                        public Connection getConnection() throws SQLException {
+                            Connection connection = super.getConnection();
+                            try {
+                                TimeUnit.MILLISECONDS.sleep(LATENCY_MILLIS);
+                            } catch (InterruptedException ex) {
+                                Thread.currentThread().interrupt();
+                            }
+                            return connection;
+                        }
+                    };
+                }
+            };
+        }
+    }
+}
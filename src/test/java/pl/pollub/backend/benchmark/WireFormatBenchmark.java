@@ -0,0 +1,81 @@
+package pl.pollub.backend.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import pl.pollub.backend.model.movie.Movie;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares payload size and (de)serialization time of a large movie list in JSON, CBOR and Smile,
+ * using mappers configured like the HTTP message converters. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class WireFormatBenchmark {
+    private static final String[] GENRES = {"Drama", "Comedy", "Action", "Thriller", "Sci-Fi", "Horror", "Romance"};
+    private static final int MOVIES = 100_000;
+    private static final int WARMUP_ROUNDS = 10;
+    private static final int ROUNDS = 20;
+    private static final TypeReference<List<Movie>> MOVIE_LIST = new TypeReference<>() {
+    };
+
+    @Test
+    void serializeOneHundredThousandMovies() throws IOException {
+        List<Movie> movies = movies();
+        Map<String, ObjectMapper> mappers = new LinkedHashMap<>();
+        mappers.put("json", Jackson2ObjectMapperBuilder.json().build());
+        mappers.put("cbor", Jackson2ObjectMapperBuilder.cbor().build());
+        mappers.put("smile", Jackson2ObjectMapperBuilder.smile().build());
+
+        System.out.printf("movies=%d%n%8s %12s %12s %12s%n", MOVIES, "format", "bytes", "write[ms]", "read[ms]");
+        for (Map.Entry<String, ObjectMapper> entry : mappers.entrySet()) {
+            ObjectMapper mapper = entry.getValue();
+            byte[] payload = mapper.writeValueAsBytes(movies);
+            for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                mapper.writeValueAsBytes(movies);
+                mapper.readValue(payload, MOVIE_LIST);
+            }
+
+            long start = System.nanoTime();
+            for (int i = 0; i < ROUNDS; i++) {
+                payload = mapper.writeValueAsBytes(movies);
+            }
+            double write = (System.nanoTime() - start) / 1e6 / ROUNDS;
+
+            List<Movie> read = null;
+            start = System.nanoTime();
+            for (int i = 0; i < ROUNDS; i++) {
+                read = mapper.readValue(payload, MOVIE_LIST);
+            }
+            double readTime = (System.nanoTime() - start) / 1e6 / ROUNDS;
+
+            assertEquals(movies, read);
+            System.out.printf("%8s %12d %12.1f %12.1f%n", entry.getKey(), payload.length, write, readTime);
+        }
+    }
+
+    private static List<Movie> movies() {
+        Random random = new Random(42);
+        List<Movie> movies = new ArrayList<>(MOVIES);
+        for (int i = 0; i < MOVIES; i++) {
+            movies.add(Movie.builder()
+                    .id((long) i + 1)
+                    .title("Movie title number " + i)
+                    .genre(GENRES[random.nextInt(GENRES.length)])
+                    .releaseDate(LocalDate.of(1950, 1, 1).plusDays(random.nextInt(27_000)))
+                    .build());
+        }
+        return movies;
+    }
+}
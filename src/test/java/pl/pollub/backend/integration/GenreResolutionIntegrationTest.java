@@ -0,0 +1,102 @@
+package pl.pollub.backend.integration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import pl.pollub.backend.dto.movie.MovieBatchResultDto;
+import pl.pollub.backend.dto.movie.MovieDto;
+import pl.pollub.backend.repository.movie.IMovieRepository;
+import pl.pollub.backend.service.auth.JwtUserDetailsService;
+import pl.pollub.backend.service.movie.GenreService;
+import pl.pollub.backend.service.movie.IMovieWriter;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs with a single pooled connection, so any genre lookup that needed a connection of its own
+ * while a save holds one would time out. Migrations get their own connection to keep startup working.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + GenreResolutionIntegrationTest.DATABASE_URL,
+        "spring.datasource.hikari.maximum-pool-size=1",
+        "spring.datasource.hikari.connection-timeout=5000",
+        "spring.flyway.url=" + GenreResolutionIntegrationTest.DATABASE_URL,
+        "spring.flyway.user=sa"
+})
+@Import(JwtUserDetailsService.class)
+@ActiveProfiles("test")
+class GenreResolutionIntegrationTest {
+    static final String DATABASE_URL = "jdbc:h2:mem:genredb;MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private IMovieWriter movieWriter;
+
+    @Autowired
+    private IMovieRepository movieRepository;
+
+    @Autowired
+    private GenreService genreService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        movieRepository.deleteAll();
+    }
+
+    @Test
+    void givenSingleConnection_whenBatchIntroducesNewGenres_thenItIsSaved() {
+        MovieBatchResultDto result = movieWriter.saveMovies(List.of(
+                new MovieDto("First", "Batch Genre One", LocalDate.of(2020, 1, 1)),
+                new MovieDto("Second", "Batch Genre Two", LocalDate.of(2021, 1, 1)),
+                new MovieDto("Third", "batch genre one", LocalDate.of(2022, 1, 1))));
+
+        assertEquals(3, result.getSaved().size());
+        assertTrue(result.getErrors().isEmpty());
+        assertEquals(result.getSaved().get(0).getGenre(), result.getSaved().get(2).getGenre());
+        assertTrue(genreService.findByName("Batch Genre Two").isPresent());
+    }
+
+    @Test
+    void givenSingleConnection_whenConcurrentSavesIntroduceNewGenres_thenAllAreSaved() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<MovieBatchResultDto>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                String genre = "Concurrent Genre " + i;
+                results.add(executor.submit(() -> movieWriter.saveMovies(List.of(
+                        new MovieDto("Movie in " + genre, genre, LocalDate.of(2020, 1, 1))))));
+            }
+            for (Future<MovieBatchResultDto> result : results) {
+                assertEquals(1, result.get().getSaved().size());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(8, movieRepository.count());
+    }
+
+    @Test
+    void givenTransactionRolledBack_whenGenreWasInsertedInIt_thenGenreIsNeitherCachedNorStored() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            genreService.resolve("Rolled Back Genre");
+            status.setRollbackOnly();
+        });
+
+        assertTrue(genreService.findByName("Rolled Back Genre").isEmpty());
+    }
+}
@@ -0,0 +1,101 @@
+package pl.pollub.backend.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import pl.pollub.backend.dto.auth.UserDto;
+import pl.pollub.backend.repository.auth.IUserRepository;
+import pl.pollub.backend.util.catalog.MovieCatalog;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class MetricsIntegrationTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private IUserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MovieCatalog movieCatalog;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        movieCatalog.invalidate();
+    }
+
+    @Test
+    void givenAuthenticatedMovieRequests_whenScrapingPrometheus_thenHotPathHistogramsArePublished() throws Exception {
+        UserDto credentials = UserDto.builder().username("metrics").password("password123").build();
+        mockMvc.perform(post("/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(credentials)))
+                .andExpect(status().isOk());
+        String response = mockMvc.perform(post("/authenticate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(credentials)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String bearer = "Bearer " + objectMapper.readTree(response).get("jwtToken").asText();
+
+        mockMvc.perform(get("/api/movies").header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/movies/filter/genre/Drama").header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus").header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket{")))
+                .andExpect(content().string(containsString("movies_service_seconds_bucket{")))
+                .andExpect(content().string(containsString("movies_filter_results_movies_bucket{")))
+                .andExpect(content().string(containsString("auth_jwt_seconds_bucket{")))
+                .andExpect(content().string(containsString("auth_user_lookup_seconds_bucket{")))
+                .andExpect(content().string(containsString("auth_password_seconds_bucket{")))
+                .andExpect(content().string(containsString("hikaricp_connections_acquire_seconds_bucket{")))
+                .andExpect(content().string(containsString("hikaricp_connections_active{")))
+                .andExpect(content().string(containsString("hikaricp_connections_pending{")));
+    }
+
+    @Test
+    @WithMockUser
+    void givenUnloadedCatalog_whenFiltering_thenCatalogIsLoadedThroughTimedReader() throws Exception {
+        mockMvc.perform(get("/api/movies/filter/year/1999"))
+                .andExpect(status().isOk());
+
+        assertTrue(meterRegistry.find("movies.service").tag("method", "getAllMovies").timer().count() > 0);
+    }
+
+    @Test
+    void givenNoToken_whenReadingMetricsEndpoints_thenAccessIsDenied() throws Exception {
+        mockMvc.perform(get("/actuator/metrics"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isUnauthorized());
+    }
+}
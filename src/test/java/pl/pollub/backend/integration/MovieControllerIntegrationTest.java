@@ -1,24 +1,46 @@
 package pl.pollub.backend.integration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import pl.pollub.backend.dto.movie.MovieDto;
 import pl.pollub.backend.model.movie.Movie;
 import pl.pollub.backend.repository.movie.IMovieRepository;
 import pl.pollub.backend.service.auth.JwtUserDetailsService;
+import pl.pollub.backend.util.cache.MovieCache;
+import pl.pollub.backend.util.catalog.MovieAggregates;
+import pl.pollub.backend.util.catalog.MovieCatalog;
+import pl.pollub.backend.util.filter.GenreFilter;
+import pl.pollub.backend.util.filter.YearFilter;
+import pl.pollub.backend.util.search.TitleSearchIndex;
+import pl.pollub.backend.util.search.TitleSuggestionTrie;
 
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -34,15 +56,40 @@ class MovieControllerIntegrationTest {
     @Autowired
     private IMovieRepository movieRepository;
 
+    @Autowired
+    private MovieCatalog movieCatalog;
+
+    @Autowired
+    private MovieAggregates movieAggregates;
+
+    @Autowired
+    private MovieCache movieCache;
+
+    @Autowired
+    private TitleSearchIndex titleSearchIndex;
+
+    @Autowired
+    private TitleSuggestionTrie titleSuggestionTrie;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
     private MovieDto validMovieDto;
     private Movie savedMovie;
 
     @BeforeEach
     void setUp() {
         movieRepository.deleteAll();
+        movieCatalog.invalidate();
+        titleSearchIndex.invalidate();
+        titleSuggestionTrie.invalidate();
+        movieAggregates.invalidate();
 
         validMovieDto = new MovieDto();
         validMovieDto.setTitle("Test Movie");
@@ -151,4 +198,682 @@ class MovieControllerIntegrationTest {
         mockMvc.perform(delete("/api/movies/{id}", 999L))
                 .andExpect(status().isNotFound());
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser
+    void givenExistingMovies_whenFilteringByGenre_thenReturnMatchingMoviesIgnoringCase() throws Exception {
+        mockMvc.perform(get("/api/movies/filter/genre/{genre}", "drama"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].title", is(savedMovie.getTitle())));
+    }
+
+    @Test
+    @WithMockUser
+    void givenMovieSavedThroughApi_whenFilteringByYear_thenReturnsNewMovie() throws Exception {
+        mockMvc.perform(get("/api/movies/filter/year/{year}", 2024))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+
+        mockMvc.perform(post("/api/movies")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validMovieDto)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/movies/filter/year/{year}", 2024))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].title", is(validMovieDto.getTitle())));
+    }
+
+    @Test
+    @WithMockUser
+    void givenSeveralCriteria_whenFilteringWithCombinedQuery_thenAllCriteriaApply() throws Exception {
+        movieRepository.save(Movie.builder()
+                .title("Old Drama")
+                .genre("Drama")
+                .releaseDate(LocalDate.of(1990, 5, 5))
+                .build());
+        movieRepository.save(Movie.builder()
+                .title("New Comedy")
+                .genre("Comedy")
+                .releaseDate(LocalDate.of(2023, 6, 1))
+                .build());
+
+        mockMvc.perform(get("/api/movies/filter")
+                        .param("genre", "drama", "comedy")
+                        .param("from", "2023-01-01")
+                        .param("to", "2023-12-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[*].title", containsInAnyOrder("Existing Movie", "New Comedy")));
+
+        mockMvc.perform(get("/api/movies/filter")
+                        .param("excludeGenre", "comedy")
+                        .param("year", "1990"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].title", is("Old Drama")));
+    }
+
+    @Test
+    @WithMockUser
+    void givenDateRange_whenFilteringByReleaseDate_thenBoundsAreInclusiveAndWritesAreIndexed() throws Exception {
+        movieRepository.save(Movie.builder()
+                .title("Old Drama")
+                .genre("Drama")
+                .releaseDate(LocalDate.of(1990, 5, 5))
+                .build());
+        movieRepository.save(Movie.builder()
+                .title("New Comedy")
+                .genre("Comedy")
+                .releaseDate(LocalDate.of(2023, 6, 1))
+                .build());
+
+        mockMvc.perform(get("/api/movies/filter/released")
+                        .param("from", "2023-06-01")
+                        .param("to", "2023-12-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].title", containsInAnyOrder("Existing Movie", "New Comedy")));
+
+        mockMvc.perform(post("/api/movies")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validMovieDto)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/movies/filter/released").param("from", "2023-12-02"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].title", is(validMovieDto.getTitle())));
+
+        mockMvc.perform(get("/api/movies/filter/released").param("to", "1999-12-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].title", is("Old Drama")));
+
+        mockMvc.perform(get("/api/movies/filter/released"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/movies/filter/released")
+                        .param("from", "2024-01-01")
+                        .param("to", "2023-01-01"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser
+    void givenWrites_whenRetrievingAggregates_thenCountsFollowCreateUpdateAndDelete() throws Exception {
+        mockMvc.perform(get("/api/movies/aggregates"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total", is(1)))
+                .andExpect(jsonPath("$.byGenre.Drama", is(1)))
+                .andExpect(jsonPath("$.byMonth['2023-12']", is(1)));
+
+        String response = mockMvc.perform(post("/api/movies")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validMovieDto)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        Long createdId = objectMapper.readValue(response, Movie.class).getId();
+        validMovieDto.setReleaseDate(LocalDate.of(2023, 12, 24));
+        mockMvc.perform(put("/api/movies/{id}", createdId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validMovieDto)))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/movies/{id}", savedMovie.getId()))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/movies/aggregates"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total", is(1)))
+                .andExpect(jsonPath("$.byGenre." + validMovieDto.getGenre(), is(1)))
+                .andExpect(jsonPath("$.byYear['2023']", is(1)))
+                .andExpect(jsonPath("$.byYear['2024']").doesNotExist())
+                .andExpect(jsonPath("$.byMonth['2023-12']", is(1)));
+    }
+
+    @Test
+    @WithMockUser
+    void givenMatchingETag_whenRetrievingMovie_thenNotModifiedUntilMovieChanges() throws Exception {
+        String etag = mockMvc.perform(get("/api/movies/{id}", savedMovie.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/movies/{id}", savedMovie.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        mockMvc.perform(put("/api/movies/{id}", savedMovie.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validMovieDto)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/movies/{id}", savedMovie.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+                .andExpect(jsonPath("$.title", is(validMovieDto.getTitle())));
+    }
+
+    @Test
+    @WithMockUser
+    void givenMatchingETag_whenRetrievingMovie_thenNotModifiedWithoutLoadingIt() throws Exception {
+        String etag = mockMvc.perform(get("/api/movies/{id}", savedMovie.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        movieCache.invalidateAll();
+
+        mockMvc.perform(get("/api/movies/{id}", savedMovie.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/movies/filter/genre/{genre}", savedMovie.getGenre()))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/movies/{id}", savedMovie.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        assertEquals(0, movieCache.getStats().getSize());
+        String staleTag = "\"" + (savedMovie.getVersion() + 1) + "\"";
+        mockMvc.perform(get("/api/movies/{id}", savedMovie.getId()).header(HttpHeaders.IF_NONE_MATCH, staleTag))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues(HttpHeaders.ETAG, etag));
+    }
+
+    @Test
+    @WithMockUser
+    void givenIfMatch_whenUpdatingAndDeleting_thenStaleVersionsAreRejected() throws Exception {
+        String etag = mockMvc.perform(get("/api/movies/{id}", savedMovie.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        MovieDto titleOnly = new MovieDto();
+        titleOnly.setTitle("Renamed Movie");
+        String newEtag = mockMvc.perform(put("/api/movies/{id}", savedMovie.getId())
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(titleOnly)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title", is("Renamed Movie")))
+                .andExpect(jsonPath("$.genre", is("Drama")))
+                .andExpect(jsonPath("$.releaseDate", is("2023-12-01")))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, newEtag);
+
+        mockMvc.perform(put("/api/movies/{id}", savedMovie.getId())
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validMovieDto)))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(delete("/api/movies/{id}", savedMovie.getId()).header(HttpHeaders.IF_MATCH, etag))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(delete("/api/movies/{id}", savedMovie.getId()).header(HttpHeaders.IF_MATCH, "not-a-tag"))
+                .andExpect(status().isBadRequest());
+
+        assertEquals("Renamed Movie", movieRepository.findById(savedMovie.getId()).orElseThrow().getTitle());
+
+        mockMvc.perform(delete("/api/movies/{id}", savedMovie.getId()).header(HttpHeaders.IF_MATCH, newEtag))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(delete("/api/movies/{id}", savedMovie.getId()).header(HttpHeaders.IF_MATCH, newEtag))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser
+    void givenWeakOrListedIfMatch_whenUpdating_thenOnlyAStrongMatchSucceeds() throws Exception {
+        String etag = mockMvc.perform(get("/api/movies/{id}", savedMovie.getId()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        MovieDto titleOnly = new MovieDto();
+        titleOnly.setTitle("Listed Movie");
+        String body = objectMapper.writeValueAsString(titleOnly);
+
+        mockMvc.perform(put("/api/movies/{id}", savedMovie.getId())
+                        .header(HttpHeaders.IF_MATCH, "W/" + etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(put("/api/movies/{id}", savedMovie.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"abc\", W/" + etag + ", \"9999\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(put("/api/movies/{id}", savedMovie.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"9999\", " + etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title", is("Listed Movie")));
+    }
+
+    @Test
+    @WithMockUser
+    void givenNewGenre_whenConditionalUpdateFails_thenGenreIsNotCreated() throws Exception {
+        MovieDto newGenre = new MovieDto();
+        newGenre.setGenre("Orphan Genre");
+        String body = objectMapper.writeValueAsString(newGenre);
+
+        mockMvc.perform(put("/api/movies/{id}", savedMovie.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"9999\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(put("/api/movies/{id}", savedMovie.getId() + 1000)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isNotFound());
+
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM genre WHERE code = 'orphan genre'", Integer.class));
+        mockMvc.perform(get("/api/genres"))
+                .andExpect(jsonPath("$[*].name", not(hasItem("Orphan Genre"))));
+    }
+
+    @Test
+    @WithMockUser
+    void givenMatchingETag_whenRetrievingCollections_thenNotModifiedUntilCatalogChanges() throws Exception {
+        String etag = mockMvc.perform(get("/api/movies"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/movies").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/api/movies/filter/genre/{genre}", "drama").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(post("/api/movies")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validMovieDto)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/movies").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)));
+    }
+
+    @Test
+    @WithMockUser
+    void givenNoCriteriaOrInvalidDate_whenFilteringWithCombinedQuery_thenReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/movies/filter"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/movies/filter").param("from", "01-01-2023"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser
+    void givenMoreMoviesThanLimit_whenRetrievingAllMovies_thenPagesFollowTheCursor() throws Exception {
+        Movie second = movieRepository.save(Movie.builder()
+                .title("Second Movie")
+                .genre("Drama")
+                .releaseDate(LocalDate.of(2020, 1, 1))
+                .build());
+        Movie third = movieRepository.save(Movie.builder()
+                .title("Third Movie")
+                .genre("Drama")
+                .releaseDate(LocalDate.of(2021, 1, 1))
+                .build());
+
+        mockMvc.perform(get("/api/movies").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[1].id", is(second.getId().intValue())))
+                .andExpect(header().string("Link", containsString("after=" + second.getId())));
+
+        mockMvc.perform(get("/api/movies").param("limit", "2").param("after", second.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(third.getId().intValue())))
+                .andExpect(header().doesNotExist("Link"));
+
+        mockMvc.perform(get("/api/movies/filter/genre/{genre}", "drama")
+                        .param("limit", "1")
+                        .param("after", savedMovie.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].title", is("Second Movie")))
+                .andExpect(header().string("Link", containsString("after=" + second.getId())));
+    }
+
+    @Test
+    @WithMockUser
+    void givenMoviesWithoutReleaseDate_whenPagingByReleaseDate_thenCursorContinuesIntoThem() throws Exception {
+        Movie firstUndated = movieRepository.save(Movie.builder().title("Undated One").genre("Drama").build());
+        Movie secondUndated = movieRepository.save(Movie.builder().title("Undated Two").genre("Drama").build());
+
+        mockMvc.perform(get("/api/movies").param("orderBy", "releaseDate").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].title", contains(savedMovie.getTitle(), "Undated One")))
+                .andExpect(header().string("Link", allOf(
+                        containsString("after=" + firstUndated.getId()), containsString("afterDate=null"))));
+
+        mockMvc.perform(get("/api/movies")
+                        .param("orderBy", "releaseDate")
+                        .param("limit", "2")
+                        .param("after", firstUndated.getId().toString())
+                        .param("afterDate", "null"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", contains(secondUndated.getId().intValue())))
+                .andExpect(header().doesNotExist("Link"));
+    }
+
+    @Test
+    @WithMockUser
+    void givenNoPagingParameters_whenListingMovies_thenEveryMovieIsReturned() throws Exception {
+        List<Movie> movies = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            movies.add(Movie.builder().title("Movie " + i).genre("Drama").releaseDate(LocalDate.of(2000, 1, 1)).build());
+        }
+        movieRepository.saveAll(movies);
+
+        mockMvc.perform(get("/api/movies"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(151)))
+                .andExpect(header().doesNotExist("Link"));
+        mockMvc.perform(get("/api/movies").param("orderBy", "releaseDate"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(151)));
+        mockMvc.perform(get("/api/movies/filter/genre/{genre}", "drama"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(151)))
+                .andExpect(header().doesNotExist("Link"));
+    }
+
+    @Test
+    @WithMockUser
+    void givenReleaseDateOrder_whenRetrievingAllMovies_thenSeeksOnReleaseDateAndId() throws Exception {
+        Movie oldest = movieRepository.save(Movie.builder()
+                .title("Oldest Movie")
+                .genre("Drama")
+                .releaseDate(LocalDate.of(1990, 1, 1))
+                .build());
+
+        mockMvc.perform(get("/api/movies").param("orderBy", "releaseDate").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title", is("Oldest Movie")))
+                .andExpect(header().string("Link", containsString("afterDate=1990-01-01")));
+
+        mockMvc.perform(get("/api/movies")
+                        .param("orderBy", "releaseDate")
+                        .param("afterDate", "1990-01-01")
+                        .param("after", oldest.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].title", is(savedMovie.getTitle())));
+
+        mockMvc.perform(get("/api/movies").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/movies")
+                        .param("orderBy", "releaseDate")
+                        .param("after", oldest.getId().toString()))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/movies")
+                        .param("orderBy", "releaseDate")
+                        .param("afterDate", "1990-01-01"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser
+    void givenNdjsonAccept_whenRetrievingAllMovies_thenStreamsOneMoviePerLine() throws Exception {
+        movieRepository.save(Movie.builder()
+                .title("Second Movie")
+                .genre("Comedy")
+                .releaseDate(LocalDate.of(2020, 1, 1))
+                .build());
+
+        MvcResult result = mockMvc.perform(get("/api/movies").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(savedMovie.getTitle(), objectMapper.readValue(lines[0], Movie.class).getTitle());
+        assertEquals("Second Movie", objectMapper.readValue(lines[1], Movie.class).getTitle());
+    }
+
+    @Test
+    @WithMockUser
+    void givenGenreSpelledDifferently_whenSavingMovie_thenSharesCanonicalDictionaryEntry() throws Exception {
+        validMovieDto.setGenre(" drama ");
+
+        mockMvc.perform(post("/api/movies")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validMovieDto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.genre", is("Drama")));
+
+        mockMvc.perform(get("/api/genres"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.code == 'drama')]", hasSize(1)))
+                .andExpect(jsonPath("$[?(@.code == 'drama')].name", contains("Drama")));
+
+        movieCatalog.invalidate();
+        assertEquals(2, movieRepository.findAll(new GenreFilter("DRAMA").toSpecification().orElseThrow()).size());
+        assertEquals(0, movieRepository.findAll(new GenreFilter("Unknown").toSpecification().orElseThrow()).size());
+    }
+
+    @Test
+    @WithMockUser
+    void givenUpdatedReleaseDate_whenFilteringByYearInDatabase_thenPersistedReleaseYearFollows() throws Exception {
+        validMovieDto.setReleaseDate(LocalDate.of(2001, 5, 5));
+
+        mockMvc.perform(put("/api/movies/" + savedMovie.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validMovieDto)))
+                .andExpect(status().isOk());
+
+        assertEquals(0, movieRepository.findAll(new YearFilter(2023).toSpecification().orElseThrow()).size());
+        assertEquals(1, movieRepository.findAll(new YearFilter(2001).toSpecification().orElseThrow()).size());
+    }
+
+    @Test
+    @WithMockUser
+    void givenBatchWithInvalidItem_whenSavingBatch_thenSavesValidItemsAndReportsErrors() throws Exception {
+        MovieDto invalidMovieDto = new MovieDto("No Genre", null, LocalDate.of(2020, 1, 1));
+        MovieDto secondMovieDto = new MovieDto("Second Movie", "Comedy", LocalDate.of(2021, 2, 2));
+
+        mockMvc.perform(post("/api/movies/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                List.of(validMovieDto, invalidMovieDto, secondMovieDto))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.saved", hasSize(2)))
+                .andExpect(jsonPath("$.saved[0].title", is(validMovieDto.getTitle())))
+                .andExpect(jsonPath("$.saved[1].id", notNullValue()))
+                .andExpect(jsonPath("$.errors", hasSize(1)))
+                .andExpect(jsonPath("$.errors[0].index", is(1)))
+                .andExpect(jsonPath("$.errors[0].message", is("Genre cannot be null or empty")));
+
+        assertEquals(3, movieRepository.count());
+
+        mockMvc.perform(post("/api/movies/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser
+    void givenCsvAndNdjsonFiles_whenImporting_thenValidRowsAreSavedAndBadRowsReported() throws Exception {
+        mockMvc.perform(post("/api/movies/import")
+                        .contentType("text/csv")
+                        .content("title,genre,releaseDate\nImported Movie,Drama,2001-01-01\n,Drama,2002-02-02\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.finished", is(true)))
+                .andExpect(jsonPath("$.imported", is(1)))
+                .andExpect(jsonPath("$.failedRows[0].row", is(3)))
+                .andExpect(jsonPath("$.failedRows[0].message", is("Title cannot be null or empty")));
+
+        mockMvc.perform(post("/api/movies/import")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"title\":\"Streamed Movie\",\"genre\":\"Comedy\",\"releaseDate\":\"2003-03-03\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(1)))
+                .andExpect(jsonPath("$.failed", is(0)));
+
+        assertEquals(3, movieRepository.count());
+
+        mockMvc.perform(post("/api/movies/import")
+                        .contentType("text/csv")
+                        .content("name,year\n"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser
+    void givenCsvFormat_whenExporting_thenStreamsHeaderAndEscapedRows() throws Exception {
+        Movie quoted = movieRepository.save(Movie.builder()
+                .title("Heat, \"Director's Cut\"")
+                .genre("Crime")
+                .releaseDate(LocalDate.of(1995, 12, 15))
+                .build());
+
+        MvcResult result = mockMvc.perform(get("/api/movies/export").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals("id,title,genre,releaseDate\n"
+                + savedMovie.getId() + ",Existing Movie,Drama,2023-12-01\n"
+                + quoted.getId() + ",\"Heat, \"\"Director's Cut\"\"\",Crime,1995-12-15\n", body);
+
+        mockMvc.perform(get("/api/movies/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser
+    void givenAcceptEncodingQualities_whenExporting_thenGzipOnlyWhenAllowed() throws Exception {
+        assertExportEncoding("gzip;q=0, deflate", null);
+        assertExportEncoding("gzip; q=0.0, *", null);
+        assertExportEncoding("deflate, *;q=0.5", "gzip");
+        assertExportEncoding("GZIP;Q=0.8", "gzip");
+        assertExportEncoding("identity", null);
+    }
+
+    private void assertExportEncoding(String acceptEncoding, String expectedEncoding) throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/movies/export").header("Accept-Encoding", acceptEncoding))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(expectedEncoding == null
+                        ? header().doesNotExist("Content-Encoding")
+                        : header().string("Content-Encoding", expectedEncoding));
+    }
+
+    @Test
+    @WithMockUser
+    void givenBinaryFormatAndGzip_whenExporting_thenStreamsCompressedLengthPrefixedRecords() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/movies/export")
+                        .param("format", "binary")
+                        .header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        byte[] body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (DataInputStream input = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(body)))) {
+            assertEquals("MOVB", new String(input.readNBytes(4), StandardCharsets.US_ASCII));
+            assertEquals(1, input.readInt());
+            int length = input.readInt();
+            assertEquals(savedMovie.getId(), input.readLong());
+            assertEquals(LocalDate.of(2023, 12, 1).toEpochDay(), input.readInt());
+            assertEquals("Existing Movie", new String(input.readNBytes(input.readInt()), StandardCharsets.UTF_8));
+            assertEquals("Drama", new String(input.readNBytes(input.readInt()), StandardCharsets.UTF_8));
+            assertEquals(8 + 4 + 4 + 14 + 4 + 5, length);
+            assertEquals(-1, input.read());
+        }
+    }
+
+    @Test
+    @WithMockUser
+    void givenMisspelledQuery_whenSearching_thenReturnsRankedMatchesIncludingNewMovies() throws Exception {
+        mockMvc.perform(get("/api/movies/search").param("q", "existng"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].title", is(savedMovie.getTitle())));
+
+        mockMvc.perform(post("/api/movies")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validMovieDto)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/movies/search").param("q", "test movie"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].title", is(validMovieDto.getTitle())));
+
+        mockMvc.perform(get("/api/movies/search").param("q", " !"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser
+    void givenPrefix_whenSuggesting_thenReturnsTitlesStartingWithPrefixOrAnyWord() throws Exception {
+        mockMvc.perform(get("/api/movies/suggest").param("prefix", "exi"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(savedMovie.getId().intValue())))
+                .andExpect(jsonPath("$[0].title", is(savedMovie.getTitle())));
+
+        mockMvc.perform(post("/api/movies")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validMovieDto)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/movies/suggest").param("prefix", "MOV"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)));
+
+        mockMvc.perform(get("/api/movies/suggest").param("prefix", "mov").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        mockMvc.perform(get("/api/movies/suggest").param("prefix", "-"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser
+    void givenBinaryMediaTypes_whenReadingAndWritingMovies_thenCborAndSmileAreNegotiated() throws Exception {
+        ObjectMapper cbor = CBORMapper.builder().addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+        ObjectMapper smile = SmileMapper.builder().addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+
+        byte[] cborBody = mockMvc.perform(get("/api/movies/{id}", savedMovie.getId()).accept(CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        Movie fromCbor = cbor.readValue(cborBody, Movie.class);
+        assertEquals(savedMovie.getTitle(), fromCbor.getTitle());
+        assertEquals(savedMovie.getReleaseDate(), fromCbor.getReleaseDate());
+
+        byte[] smileBody = mockMvc.perform(post("/api/movies")
+                        .contentType(SMILE)
+                        .accept(SMILE)
+                        .content(smile.writeValueAsBytes(validMovieDto)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertEquals(validMovieDto.getTitle(), smile.readValue(smileBody, Movie.class).getTitle());
+
+        mockMvc.perform(get("/api/movies"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$", hasSize(2)));
+    }
+}
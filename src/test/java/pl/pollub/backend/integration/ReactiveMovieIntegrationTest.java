@@ -0,0 +1,244 @@
+package pl.pollub.backend.integration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import pl.pollub.backend.config.JwtTokenUtil;
+import pl.pollub.backend.config.ReactiveMovieServer;
+import pl.pollub.backend.dto.auth.UserDto;
+import pl.pollub.backend.model.movie.Movie;
+import pl.pollub.backend.repository.auth.IUserRepository;
+import pl.pollub.backend.repository.movie.IMovieRepository;
+import pl.pollub.backend.service.auth.JwtUserDetailsService;
+import pl.pollub.backend.util.catalog.MovieAggregates;
+import pl.pollub.backend.util.catalog.MovieCatalog;
+import pl.pollub.backend.util.search.TitleSearchIndex;
+import pl.pollub.backend.util.search.TitleSuggestionTrie;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "movies.reactive.enabled=true")
+@Import(JwtUserDetailsService.class)
+@ActiveProfiles("test")
+class ReactiveMovieIntegrationTest {
+
+    @Autowired
+    private ReactiveMovieServer reactiveMovieServer;
+
+    @Autowired
+    private IMovieRepository movieRepository;
+
+    @Autowired
+    private MovieCatalog movieCatalog;
+
+    @Autowired
+    private MovieAggregates movieAggregates;
+
+    @Autowired
+    private TitleSearchIndex titleSearchIndex;
+
+    @Autowired
+    private TitleSuggestionTrie titleSuggestionTrie;
+
+    @Autowired
+    private JwtTokenUtil jwtTokenUtil;
+
+    @Autowired
+    private JwtUserDetailsService userDetailsService;
+
+    @Autowired
+    private IUserRepository userRepository;
+
+    private WebTestClient client;
+    private Movie drama;
+    private Movie action;
+
+    @BeforeEach
+    void setUp() {
+        movieRepository.deleteAll();
+        userRepository.deleteAll();
+        movieCatalog.invalidate();
+        titleSearchIndex.invalidate();
+        titleSuggestionTrie.invalidate();
+        movieAggregates.invalidate();
+
+        drama = movieRepository.save(Movie.builder()
+                .title("Existing Movie")
+                .genre("Drama")
+                .releaseDate(LocalDate.of(2023, 12, 1))
+                .build());
+        action = movieRepository.save(Movie.builder()
+                .title("Test Movie")
+                .genre("Action")
+                .releaseDate(LocalDate.of(2024, 1, 1))
+                .build());
+
+        userDetailsService.saveUser(new UserDto("reader", "reader-password"));
+        String token = jwtTokenUtil.generateToken(userDetailsService.loadUserByUsername("reader"));
+        client = WebTestClient.bindToServer()
+                .baseUrl("http://localhost:" + reactiveMovieServer.getPort())
+                .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .build();
+    }
+
+    @Test
+    void givenStoredMovies_whenStreamingAsNdjson_thenEveryMovieArrivesInIdOrder() {
+        Flux<Movie> movies = client.get().uri("/api/movies")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(Movie.class)
+                .getResponseBody();
+
+        StepVerifier.create(movies)
+                .expectNextMatches(movie -> movie.getId().equals(drama.getId()) && movie.getGenre().equals("Drama"))
+                .expectNextMatches(movie -> movie.getId().equals(action.getId()) && movie.getTitle().equals("Test Movie"))
+                .verifyComplete();
+    }
+
+    @Test
+    void givenCursorAndLimit_whenListing_thenOnlyFollowingPageIsReturned() {
+        List<Movie> page = client.get().uri("/api/movies?after={after}&limit=1", drama.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Movie.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertEquals(List.of(action.getId()), page.stream().map(Movie::getId).toList());
+    }
+
+    @Test
+    void givenExistingAndMissingIds_whenRetrievingById_thenMovieOrNotFound() {
+        client.get().uri("/api/movies/{id}", drama.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"" + drama.getVersion() + "\"")
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Existing Movie")
+                .jsonPath("$.releaseDate").isEqualTo("2023-12-01");
+
+        client.get().uri("/api/movies/{id}", action.getId() + 1000)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void givenMatchingETag_whenRetrievingById_thenNotModifiedUntilMovieChanges() {
+        String etag = "\"" + drama.getVersion() + "\"";
+
+        client.get().uri("/api/movies/{id}", drama.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, etag)
+                .expectBody().isEmpty();
+
+        client.get().uri("/api/movies/{id}", drama.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, "\"" + (drama.getVersion() + 1) + "\"")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Existing Movie");
+    }
+
+    @Test
+    void givenGenreCriteria_whenFiltering_thenMatchingMoviesAreStreamed() {
+        client.get().uri("/api/movies/filter?genre=Action")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Movie.class)
+                .hasSize(1)
+                .contains(action);
+
+        client.get().uri("/api/movies/filter")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void givenCursorAndLimit_whenFiltering_thenOnlyFollowingPageIsReturned() {
+        Movie sequel = movieRepository.save(Movie.builder()
+                .title("Test Movie 2")
+                .genre("Action")
+                .releaseDate(LocalDate.of(2024, 6, 1))
+                .build());
+
+        List<Movie> firstPage = client.get().uri("/api/movies/filter?genre=Action&limit=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Movie.class)
+                .returnResult()
+                .getResponseBody();
+        List<Movie> nextPage = client.get().uri("/api/movies/filter?genre=Action&after={after}&limit=1", action.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Movie.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertEquals(List.of(action.getId()), firstPage.stream().map(Movie::getId).toList());
+        assertEquals(List.of(sequel.getId()), nextPage.stream().map(Movie::getId).toList());
+    }
+
+    @Test
+    void givenMatchingETag_whenListingOrFiltering_thenNotModifiedUntilCatalogChanges() {
+        String etag = client.get().uri("/api/movies/filter?genre=Drama")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(HttpHeaders.LAST_MODIFIED)
+                .returnResult(Movie.class)
+                .getResponseHeaders().getETag();
+
+        client.get().uri("/api/movies/filter?genre=Drama")
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+        client.get().uri("/api/movies")
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isNotModified();
+
+        movieCatalog.movieDeleted(action.getId());
+
+        client.get().uri("/api/movies/filter?genre=Drama")
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Movie.class)
+                .hasSize(1);
+    }
+
+    @Test
+    void givenDeletedUser_whenListingWithTheirToken_thenUnauthorized() {
+        userRepository.deleteAll();
+
+        client.get().uri("/api/movies").exchange().expectStatus().isUnauthorized();
+    }
+
+    @Test
+    void givenMissingOrInvalidToken_whenListing_thenUnauthorized() {
+        WebTestClient anonymous = WebTestClient.bindToServer()
+                .baseUrl("http://localhost:" + reactiveMovieServer.getPort())
+                .build();
+
+        anonymous.get().uri("/api/movies").exchange().expectStatus().isUnauthorized();
+        anonymous.get().uri("/api/movies")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer not-a-token")
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+}
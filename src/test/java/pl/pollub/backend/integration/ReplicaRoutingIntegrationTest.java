@@ -0,0 +1,201 @@
+package pl.pollub.backend.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import pl.pollub.backend.dto.movie.MovieDto;
+import pl.pollub.backend.model.movie.Movie;
+import pl.pollub.backend.repository.movie.IMovieRepository;
+import pl.pollub.backend.service.auth.JwtUserDetailsService;
+import pl.pollub.backend.util.cache.MovieCache;
+import pl.pollub.backend.util.catalog.MovieAggregates;
+import pl.pollub.backend.util.catalog.MovieCatalog;
+import pl.pollub.backend.util.datasource.ReplicaDataSource;
+import pl.pollub.backend.util.search.TitleSearchIndex;
+import pl.pollub.backend.util.search.TitleSuggestionTrie;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs against a second in-memory database that stands in for a replica which never receives the
+ * primary's changes, so every read served by it misses rows written during the test.
+ */
+@SpringBootTest(properties = {
+        "movies.datasource.replica.urls=" + ReplicaRoutingIntegrationTest.REPLICA_URL,
+        "movies.datasource.replica.read-your-writes-window=PT1M"
+})
+@AutoConfigureMockMvc
+@Import(JwtUserDetailsService.class)
+@ActiveProfiles("test")
+class ReplicaRoutingIntegrationTest {
+    static final String REPLICA_URL = "jdbc:h2:mem:replicadb;MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+
+    private static JdbcTemplate replica;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private IMovieRepository movieRepository;
+
+    @Autowired
+    private MovieCache movieCache;
+
+    @Autowired
+    private MovieCatalog movieCatalog;
+
+    @Autowired
+    private MovieAggregates movieAggregates;
+
+    @Autowired
+    private TitleSearchIndex titleSearchIndex;
+
+    @Autowired
+    private TitleSuggestionTrie titleSuggestionTrie;
+
+    @Autowired
+    private ReplicaDataSource replicaDataSource;
+
+    @BeforeAll
+    static void migrateReplica() {
+        Flyway.configure().dataSource(REPLICA_URL, "sa", "").load().migrate();
+        replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+    }
+
+    @BeforeEach
+    void setUp() {
+        movieRepository.deleteAll();
+        replica.update("DELETE FROM movie");
+        movieCache.invalidateAll();
+        movieCatalog.invalidate();
+        movieAggregates.invalidate();
+        titleSearchIndex.invalidate();
+        titleSuggestionTrie.invalidate();
+        replicaDataSource.checkHealth();
+    }
+
+    @Test
+    void givenMovieJustCreated_whenSameClientListsMovies_thenItIsReadFromPrimary() throws Exception {
+        long id = createMovie("writer");
+
+        mockMvc.perform(get("/api/movies").with(user("writer")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", hasItem((int) id)));
+    }
+
+    @Test
+    void givenMovieJustCreated_whenOtherClientExportsMovies_thenItIsReadFromReplica() throws Exception {
+        createMovie("writer");
+
+        MvcResult result = mockMvc.perform(get("/api/movies/export").with(user("reader")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(not(containsString("Replicated Movie"))));
+    }
+
+    @Test
+    void givenMovieJustCreated_whenOtherClientListsMovies_thenTaggedPageIsReadFromPrimary() throws Exception {
+        long id = createMovie("writer");
+
+        mockMvc.perform(get("/api/movies").with(user("reader")))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$[*].id", hasItem((int) id)));
+    }
+
+    @Test
+    void givenOtherClientReadsBetweenUpdateAndReRead_whenWriterReReads_thenUpdateIsVisible() throws Exception {
+        Movie movie = movieRepository.save(Movie.builder()
+                .title("Old Title")
+                .genre("Drama")
+                .releaseDate(LocalDate.of(2020, 1, 1))
+                .build());
+        copyToReplica(movie);
+        mockMvc.perform(get("/api/movies/" + movie.getId()).with(user("reader")))
+                .andExpect(jsonPath("$.title", is("Old Title")));
+
+        mockMvc.perform(put("/api/movies/" + movie.getId())
+                        .with(user("writer"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"New Title\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/movies/" + movie.getId()).with(user("reader")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title", is("New Title")));
+        mockMvc.perform(get("/api/movies/" + movie.getId()).with(user("writer")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title", is("New Title")));
+    }
+
+    @Test
+    void givenMovieJustCreated_whenOtherClientLoadsCatalog_thenCatalogIncludesIt() throws Exception {
+        long id = createMovie("writer");
+
+        mockMvc.perform(get("/api/movies/filter/genre/Action").with(user("reader")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", hasItem((int) id)));
+        mockMvc.perform(get("/api/movies/search").param("q", "Replicated").with(user("reader")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", hasItem((int) id)));
+    }
+
+    @Test
+    void givenReplicaHealthChecked_whenItAnswers_thenItStaysInRotation() {
+        replicaDataSource.checkHealth();
+
+        assertEquals(1, replicaDataSource.getHealthyReplicaCount());
+    }
+
+    private long createMovie(String username) throws Exception {
+        MovieDto movie = new MovieDto("Replicated Movie", "Action", LocalDate.of(2024, 1, 1));
+        String response = mockMvc.perform(post("/api/movies")
+                        .with(user(username))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(movie)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("id").asLong();
+    }
+
+    private static void copyToReplica(Movie movie) {
+        replica.update("MERGE INTO genre (code, name) KEY (code) VALUES (?, ?)",
+                movie.getGenre().toLowerCase(), movie.getGenre());
+        replica.update("INSERT INTO movie (id, title, genre_id, release_date, release_year, updated_at, version) "
+                        + "VALUES (?, ?, (SELECT id FROM genre WHERE code = ?), ?, ?, ?, ?)",
+                movie.getId(), movie.getTitle(), movie.getGenre().toLowerCase(), movie.getReleaseDate(),
+                movie.getReleaseDate().getYear(), Timestamp.from(Instant.now()), movie.getVersion());
+    }
+}
@@ -0,0 +1,104 @@
+package pl.pollub.backend.unit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pl.pollub.backend.model.movie.Movie;
+import pl.pollub.backend.util.catalog.MovieCatalog;
+import pl.pollub.backend.util.filter.AndFilter;
+import pl.pollub.backend.util.filter.Filter;
+import pl.pollub.backend.util.filter.GenreFilter;
+import pl.pollub.backend.util.filter.NotFilter;
+import pl.pollub.backend.util.filter.OrFilter;
+import pl.pollub.backend.util.filter.ReleaseDateFilter;
+import pl.pollub.backend.util.filter.YearFilter;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FilterUnitTest {
+
+    private final Movie[] movies = {
+            movie(1L, "Inception", "Sci-Fi", LocalDate.of(2010, 7, 16)),
+            movie(2L, "The Matrix", "Sci-Fi", LocalDate.of(1999, 3, 31)),
+            movie(3L, "Shutter Island", "Thriller", LocalDate.of(2010, 2, 19)),
+            movie(4L, "Heat", "Crime", LocalDate.of(1995, 12, 15)),
+            movie(5L, "Arrival", "Sci-Fi", LocalDate.of(2016, 11, 11))
+    };
+
+    private MovieCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        catalog = new MovieCatalog(true, 1, Integer.MAX_VALUE);
+        catalog.loadIfNeeded(() -> List.of(movies));
+    }
+
+    @Test
+    void givenGenreSetAndYear_whenFilter_thenCatalogAndScanAgree() {
+        Filter filter = new AndFilter(List.of(
+                new OrFilter(List.of(new GenreFilter("sci-fi"), new GenreFilter("thriller"))),
+                new YearFilter(2010)));
+
+        assertEquals(List.of(1L, 3L), ids(filter.filter(movies)));
+        assertEquals(List.of(1L, 3L), ids(catalog.query(filter).orElseThrow()));
+    }
+
+    @Test
+    void givenNegatedGenre_whenFilter_thenExcludesMatches() {
+        Filter filter = new NotFilter(new GenreFilter("Sci-Fi"));
+
+        assertEquals(List.of(3L, 4L), ids(filter.filter(movies)));
+        assertEquals(List.of(3L, 4L), ids(catalog.query(filter).orElseThrow()));
+    }
+
+    @Test
+    void givenReleaseDateRange_whenFilter_thenBoundsAreInclusive() {
+        Filter filter = new ReleaseDateFilter(LocalDate.of(1999, 3, 31), LocalDate.of(2010, 2, 19));
+
+        assertEquals(List.of(2L, 3L), ids(filter.filter(movies)));
+        assertEquals(List.of(2L, 3L), ids(catalog.query(filter).orElseThrow()));
+    }
+
+    @Test
+    void givenConjunction_whenPlan_thenMostSelectivePredicateRunsFirst() {
+        Filter broad = new GenreFilter("sci-fi");
+        Filter narrow = new YearFilter(1995);
+        Filter medium = new ReleaseDateFilter(null, LocalDate.of(2000, 1, 1));
+
+        AndFilter planned = (AndFilter) new AndFilter(List.of(broad, new AndFilter(List.of(medium, narrow))))
+                .plan(catalog);
+
+        assertEquals(List.of(narrow, medium, broad), planned.getFilters());
+    }
+
+    @Test
+    void givenDisjunction_whenPlan_thenBroadestBranchRunsFirst() {
+        Filter broad = new GenreFilter("sci-fi");
+        Filter narrow = new GenreFilter("crime");
+
+        OrFilter planned = (OrFilter) new OrFilter(List.of(narrow, broad)).plan(catalog);
+
+        assertEquals(List.of(broad, narrow), planned.getFilters());
+        assertEquals(List.of(1L, 2L, 4L, 5L), ids(planned.filter(movies)));
+    }
+
+    @Test
+    void givenCompositeOfTranslatableFilters_whenToSpecification_thenPresent() {
+        Filter filter = new AndFilter(List.of(
+                new NotFilter(new GenreFilter("crime")),
+                new ReleaseDateFilter(null, LocalDate.of(2000, 1, 1))));
+
+        assertTrue(filter.toSpecification().isPresent());
+    }
+
+    private static Movie movie(Long id, String title, String genre, LocalDate releaseDate) {
+        return Movie.builder().id(id).title(title).genre(genre).releaseDate(releaseDate).build();
+    }
+
+    private static List<Long> ids(Movie[] movies) {
+        return Arrays.stream(movies).map(Movie::getId).toList();
+    }
+}
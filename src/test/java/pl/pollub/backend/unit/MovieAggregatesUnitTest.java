@@ -0,0 +1,145 @@
+package pl.pollub.backend.unit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pl.pollub.backend.dto.movie.MovieAggregatesDto;
+import pl.pollub.backend.model.movie.Movie;
+import pl.pollub.backend.util.catalog.MovieAggregates;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MovieAggregatesUnitTest {
+
+    private MovieAggregates aggregates;
+
+    @BeforeEach
+    void setUp() {
+        aggregates = new MovieAggregates();
+        aggregates.loadIfNeeded(consumer -> List.of(
+                movie(1L, "Sci-Fi", LocalDate.of(2010, 7, 16)),
+                movie(2L, "Sci-Fi", LocalDate.of(1999, 3, 31)),
+                movie(3L, "Thriller", LocalDate.of(2010, 2, 19))).forEach(consumer));
+    }
+
+    @Test
+    void givenLoadedAggregates_whenSnapshot_thenCountsPerGenreYearAndMonth() {
+        MovieAggregatesDto snapshot = aggregates.snapshot();
+
+        assertEquals(3, snapshot.getTotal());
+        assertEquals(Map.of("Sci-Fi", 2L, "Thriller", 1L), snapshot.getByGenre());
+        assertEquals(Map.of(1999, 1L, 2010, 2L), snapshot.getByYear());
+        assertEquals(Map.of("1999-03", 1L, "2010-02", 1L, "2010-07", 1L), snapshot.getByMonth());
+        assertNotNull(snapshot.getRecomputedAt());
+    }
+
+    @Test
+    void givenUpdatesAndDeletes_whenSnapshot_thenMoviesMoveBetweenBuckets() {
+        aggregates.movieSaved(movie(3L, "Sci-Fi", LocalDate.of(2011, 1, 1)));
+        aggregates.movieSaved(movie(4L, "Drama", null));
+        aggregates.movieDeleted(2L);
+        aggregates.movieDeleted(2L);
+
+        MovieAggregatesDto snapshot = aggregates.snapshot();
+
+        assertEquals(3, snapshot.getTotal());
+        assertEquals(Map.of("Sci-Fi", 2L, "Drama", 1L), snapshot.getByGenre());
+        assertEquals(Map.of(2010, 1L, 2011, 1L), snapshot.getByYear());
+        assertEquals(Map.of("2010-07", 1L, "2011-01", 1L), snapshot.getByMonth());
+    }
+
+    @Test
+    void givenConcurrentWriters_whenSnapshot_thenNoUpdateIsLost() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int thread = 0; thread < 4; thread++) {
+            long firstId = 100 + thread * 1000L;
+            executor.submit(() -> {
+                for (long id = firstId; id < firstId + 1000; id++) {
+                    aggregates.movieSaved(movie(id, "Drama", LocalDate.of(2020, 1, 1)));
+                    aggregates.movieSaved(movie(id, "Comedy", LocalDate.of(2021, 1, 1)));
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        MovieAggregatesDto snapshot = aggregates.snapshot();
+        assertEquals(4003, snapshot.getTotal());
+        assertEquals(4000L, snapshot.getByGenre().get("Comedy"));
+        assertNull(snapshot.getByGenre().get("Drama"));
+        assertEquals(4000L, snapshot.getByYear().get(2021));
+    }
+
+    @Test
+    void givenDrift_whenRebuilt_thenCountsComeFromSource() {
+        aggregates.movieSaved(movie(4L, "Drama", LocalDate.of(2020, 1, 1)));
+
+        aggregates.rebuild(consumer -> consumer.accept(movie(1L, "Sci-Fi", LocalDate.of(2010, 7, 16))));
+
+        assertEquals(1, aggregates.snapshot().getTotal());
+        assertEquals(Map.of("Sci-Fi", 1L), aggregates.snapshot().getByGenre());
+    }
+
+    @Test
+    void givenRebuildReadingSource_whenWritersReport_thenTheyDoNotWaitAndAreReplayed() throws Exception {
+        CountDownLatch sourceStarted = new CountDownLatch(1);
+        CountDownLatch writesDone = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> rebuild = executor.submit(() -> aggregates.rebuild(consumer -> {
+                consumer.accept(movie(1L, "Sci-Fi", LocalDate.of(2010, 7, 16)));
+                consumer.accept(movie(2L, "Sci-Fi", LocalDate.of(1999, 3, 31)));
+                sourceStarted.countDown();
+                awaitQuietly(writesDone);
+                consumer.accept(movie(3L, "Thriller", LocalDate.of(2010, 2, 19)));
+            }));
+            assertTrue(sourceStarted.await(5, TimeUnit.SECONDS));
+
+            assertTimeoutPreemptively(Duration.ofSeconds(2), () -> {
+                aggregates.movieSaved(movie(2L, "Drama", LocalDate.of(2000, 1, 1)));
+                aggregates.movieSaved(movie(4L, "Comedy", LocalDate.of(2021, 1, 1)));
+                aggregates.movieDeleted(1L);
+            });
+            assertEquals(3, aggregates.snapshot().getTotal());
+
+            writesDone.countDown();
+            rebuild.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        MovieAggregatesDto snapshot = aggregates.snapshot();
+        assertEquals(3, snapshot.getTotal());
+        assertEquals(Map.of("Drama", 1L, "Comedy", 1L, "Thriller", 1L), snapshot.getByGenre());
+    }
+
+    @Test
+    void givenInvalidatedAggregates_whenSaved_thenIgnoredUntilReloaded() {
+        aggregates.invalidate();
+        aggregates.movieSaved(movie(4L, "Drama", LocalDate.of(2020, 1, 1)));
+
+        assertFalse(aggregates.isLoaded());
+        assertEquals(0, aggregates.snapshot().getTotal());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Movie movie(Long id, String genre, LocalDate releaseDate) {
+        return Movie.builder().id(id).title("Movie " + id).genre(genre).releaseDate(releaseDate).build();
+    }
+}
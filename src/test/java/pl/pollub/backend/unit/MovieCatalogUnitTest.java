@@ -0,0 +1,222 @@
+package pl.pollub.backend.unit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pl.pollub.backend.model.movie.Movie;
+import pl.pollub.backend.util.catalog.MovieCatalog;
+import pl.pollub.backend.util.filter.Filter;
+import pl.pollub.backend.util.filter.GenreFilter;
+import pl.pollub.backend.util.filter.ReleaseDateFilter;
+import pl.pollub.backend.util.filter.YearFilter;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MovieCatalogUnitTest {
+
+    private MovieCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        catalog = new MovieCatalog(true, 1, Integer.MAX_VALUE);
+        catalog.loadIfNeeded(() -> List.of(
+                movie(1L, "Inception", "Sci-Fi", LocalDate.of(2010, 7, 16)),
+                movie(2L, "The Matrix", "sci-fi", LocalDate.of(1999, 3, 31)),
+                movie(3L, "Shutter Island", "Thriller", LocalDate.of(2010, 2, 19))));
+    }
+
+    @Test
+    void givenLoadedCatalog_whenQueryByGenre_thenMatchesIgnoringCase() {
+        Movie[] result = catalog.query(new GenreFilter("SCI-FI")).orElseThrow();
+
+        assertEquals(List.of(1L, 2L), ids(result));
+        assertEquals("Sci-Fi", result[0].getGenre());
+        assertEquals("sci-fi", result[1].getGenre());
+    }
+
+    @Test
+    void givenLoadedCatalog_whenQueryByYear_thenReturnsMoviesFromThatYear() {
+        Movie[] result = catalog.query(new YearFilter(2010)).orElseThrow();
+
+        assertEquals(List.of(1L, 3L), ids(result));
+        assertEquals(LocalDate.of(2010, 2, 19), result[1].getReleaseDate());
+    }
+
+    @Test
+    void givenUpdatedMovie_whenPut_thenIndexesFollowNewValues() {
+        catalog.put(movie(1L, "Inception", "Thriller", LocalDate.of(2011, 1, 1)));
+
+        assertEquals(List.of(2L), ids(catalog.query(new GenreFilter("sci-fi")).orElseThrow()));
+        assertEquals(List.of(1L, 3L), ids(catalog.query(new GenreFilter("thriller")).orElseThrow()));
+        assertEquals(List.of(3L), ids(catalog.query(new YearFilter(2010)).orElseThrow()));
+        assertEquals(3, catalog.size());
+    }
+
+    @Test
+    void givenSavesArrivingOutOfOrder_whenPut_thenNewerVersionIsKept() {
+        catalog.put(movie(1L, "Inception", "Thriller", LocalDate.of(2011, 1, 1)).toBuilder().version(2L).build());
+        catalog.put(movie(1L, "Inception", "Drama", LocalDate.of(2010, 7, 16)).toBuilder().version(1L).build());
+
+        Movie[] thrillers = catalog.query(new GenreFilter("thriller")).orElseThrow();
+        assertEquals(List.of(1L, 3L), ids(thrillers));
+        assertEquals(2L, thrillers[0].getVersion());
+        assertEquals(0, catalog.query(new GenreFilter("drama")).orElseThrow().length);
+    }
+
+    @Test
+    void givenVersionedMovie_whenVersionOf_thenAnsweredWithoutQuery() {
+        catalog.put(movie(1L, "Inception", "Sci-Fi", LocalDate.of(2010, 7, 16)).toBuilder().version(3L).build());
+        catalog.remove(2L);
+
+        assertEquals(Optional.of(3L), catalog.versionOf(1L));
+        assertEquals(Optional.empty(), catalog.versionOf(2L));
+        catalog.invalidate();
+        assertEquals(Optional.empty(), catalog.versionOf(1L));
+    }
+
+    @Test
+    void givenDeletedMovie_whenRemove_thenRowIsReusedWithoutLeakingIndexes() {
+        catalog.remove(3L);
+        catalog.put(movie(4L, "Tenet", "Action", LocalDate.of(2020, 8, 26)));
+
+        assertEquals(0, catalog.query(new GenreFilter("thriller")).orElseThrow().length);
+        assertEquals(List.of(4L), ids(catalog.query(new YearFilter(2020)).orElseThrow()));
+        assertEquals(3, catalog.size());
+    }
+
+    @Test
+    void givenCursor_whenQueryPage_thenReturnsNextIdsInOrder() {
+        catalog.put(movie(4L, "Tenet", "Sci-Fi", LocalDate.of(2020, 8, 26)));
+        catalog.put(movie(5L, "Dune", "Sci-Fi", LocalDate.of(2021, 9, 15)));
+        catalog.remove(2L);
+
+        assertEquals(List.of(1L, 4L), ids(catalog.query(new GenreFilter("sci-fi"), Long.MIN_VALUE, 2).orElseThrow()));
+        assertEquals(List.of(5L), ids(catalog.query(new GenreFilter("sci-fi"), 4L, 2).orElseThrow()));
+        assertEquals(0, catalog.query(new GenreFilter("sci-fi"), 5L, 2).orElseThrow().length);
+    }
+
+    @Test
+    void givenDateRange_whenQueryByReleaseDate_thenBoundsAreInclusiveAndOptional() {
+        catalog.put(movie(4L, "Untitled", "Drama", null));
+
+        assertEquals(List.of(1L, 3L), ids(catalog.query(
+                new ReleaseDateFilter(LocalDate.of(2010, 2, 19), LocalDate.of(2010, 7, 16))).orElseThrow()));
+        assertEquals(List.of(1L), ids(catalog.query(
+                new ReleaseDateFilter(LocalDate.of(2010, 2, 20), null)).orElseThrow()));
+        assertEquals(List.of(2L), ids(catalog.query(
+                new ReleaseDateFilter(null, LocalDate.of(2010, 2, 18))).orElseThrow()));
+        assertEquals(3, catalog.countReleasedBetween(null, null));
+        assertEquals(0, catalog.countReleasedBetween(LocalDate.of(2000, 1, 1), LocalDate.of(2009, 12, 31)));
+    }
+
+    @Test
+    void givenWrites_whenQueryByReleaseDate_thenSortedIndexFollowsThem() {
+        catalog.put(movie(1L, "Inception", "Sci-Fi", LocalDate.of(2000, 1, 1)));
+        catalog.remove(3L);
+        catalog.put(movie(4L, "Memento", "Thriller", LocalDate.of(2000, 1, 1)));
+        catalog.put(movie(5L, "Tenet", "Action", LocalDate.of(2020, 8, 26)));
+
+        assertEquals(List.of(1L, 4L), ids(catalog.query(
+                new ReleaseDateFilter(LocalDate.of(2000, 1, 1), LocalDate.of(2000, 1, 1))).orElseThrow()));
+        assertEquals(List.of(5L), ids(catalog.query(
+                new ReleaseDateFilter(LocalDate.of(2001, 1, 1), null)).orElseThrow()));
+        assertEquals(4, catalog.countReleasedBetween(null, null));
+    }
+
+    @Test
+    void givenFilterWithoutIndex_whenQuery_thenRowsAreScanned() {
+        Movie[] result = catalog.query(titleContaining("Island")).orElseThrow();
+
+        assertEquals(List.of(3L), ids(result));
+        assertEquals("Thriller", result[0].getGenre());
+    }
+
+    @Test
+    void givenCatalogAboveParallelThreshold_whenScanned_thenMatchesSequentialScan() {
+        List<Movie> movies = new ArrayList<>();
+        for (long id = 1; id <= 20_000; id++) {
+            movies.add(movie(id, "Movie " + id, "Drama", null));
+        }
+        MovieCatalog parallel = new MovieCatalog(true, 4, 1);
+        parallel.loadIfNeeded(() -> movies);
+        parallel.remove(7L);
+
+        Movie[] result = parallel.query(titleContaining("7")).orElseThrow();
+
+        assertEquals(movies.stream().map(Movie::getId).filter(id -> id != 7L && id.toString().contains("7")).toList(),
+                ids(result));
+        parallel.destroy();
+    }
+
+    @Test
+    void givenInvalidatedCatalog_whenPut_thenIgnoredUntilReloaded() {
+        catalog.invalidate();
+        catalog.put(movie(5L, "Dune", "Sci-Fi", LocalDate.of(2021, 9, 15)));
+
+        assertFalse(catalog.isLoaded());
+        assertTrue(catalog.query(new GenreFilter("sci-fi")).isEmpty());
+    }
+
+    @Test
+    void givenQueryInProgress_whenPut_thenVersionMovesOnlyAfterRowsChange() throws Exception {
+        CountDownLatch querying = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Filter blockingFilter = new Filter() {
+            @Override
+            public Movie[] filter(Movie[] movies) {
+                return movies;
+            }
+
+            @Override
+            public Optional<BitSet> select(MovieCatalog catalog) {
+                querying.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return Optional.of(catalog.allRows());
+            }
+        };
+        long versionBefore = catalog.getVersion();
+        Thread reader = Thread.ofPlatform().start(() -> catalog.query(blockingFilter));
+        querying.await();
+
+        Thread writer = Thread.ofPlatform().start(
+                () -> catalog.put(movie(4L, "Dune", "Sci-Fi", LocalDate.of(2021, 9, 15))));
+        while (writer.getState() != Thread.State.WAITING) {
+            Thread.sleep(1);
+        }
+
+        assertEquals(versionBefore, catalog.getVersion());
+        release.countDown();
+        reader.join();
+        writer.join();
+        assertEquals(versionBefore + 1, catalog.getVersion());
+        assertEquals(4, catalog.size());
+    }
+
+    private static Filter titleContaining(String text) {
+        return new Filter() {
+            @Override
+            public Movie[] filter(Movie[] movies) {
+                return Arrays.stream(movies).filter(movie -> movie.getTitle().contains(text)).toArray(Movie[]::new);
+            }
+        };
+    }
+
+    private static Movie movie(Long id, String title, String genre, LocalDate releaseDate) {
+        return Movie.builder().id(id).title(title).genre(genre).releaseDate(releaseDate).build();
+    }
+
+    private static List<Long> ids(Movie[] movies) {
+        return Arrays.stream(movies).map(Movie::getId).toList();
+    }
+}
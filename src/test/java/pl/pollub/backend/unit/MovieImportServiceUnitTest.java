@@ -0,0 +1,208 @@
+package pl.pollub.backend.unit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import pl.pollub.backend.dto.movie.MovieBatchErrorDto;
+import pl.pollub.backend.dto.movie.MovieBatchResultDto;
+import pl.pollub.backend.dto.movie.MovieDto;
+import pl.pollub.backend.dto.movie.MovieImportErrorDto;
+import pl.pollub.backend.dto.movie.MovieImportReportDto;
+import pl.pollub.backend.exception.DatabaseOperationException;
+import pl.pollub.backend.exception.InvalidDataException;
+import pl.pollub.backend.model.movie.Movie;
+import pl.pollub.backend.service.movie.IMovieWriter;
+import pl.pollub.backend.service.movie.MovieImportService;
+import pl.pollub.backend.util.export.CsvMovieExportWriter;
+import pl.pollub.backend.util.importer.MovieImportFormat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class MovieImportServiceUnitTest {
+
+    private final IMovieWriter movieWriter = mock(IMovieWriter.class);
+    private final List<List<MovieDto>> chunks = new ArrayList<>();
+    private final MovieImportService importService = new MovieImportService(movieWriter,
+            new ObjectMapper().registerModule(new JavaTimeModule()), 1, 2, 1, 10);
+
+    @AfterEach
+    void tearDown() {
+        importService.destroy();
+    }
+
+    @Test
+    void givenCsvWithBadRows_whenImport_thenCommitsInChunksAndReportsFailedRows() {
+        acceptValidMovies();
+        String csv = """
+                releaseDate,title,genre
+                2010-07-16,Inception,Sci-Fi
+                1999-03-31,"The Matrix, Reloaded","Sci-Fi"
+                not-a-date,Broken,Drama
+
+                2014-11-07,Interstellar,
+                1995-12-15,"Heat ""Director's Cut\""",Crime
+                """;
+
+        MovieImportReportDto report = importService.importMovies(stream(csv), MovieImportFormat.CSV);
+
+        assertTrue(report.isFinished());
+        assertEquals(5, report.getRowsRead());
+        assertEquals(3, report.getImported());
+        assertEquals(2, report.getFailed());
+        assertEquals(List.of(4L, 6L), report.getFailedRows().stream().map(MovieImportErrorDto::getRow).toList());
+        assertEquals("Genre cannot be null or empty", report.getFailedRows().get(1).getMessage());
+        assertEquals(List.of(2, 2), chunks.stream().map(List::size).toList());
+        assertEquals("The Matrix, Reloaded", chunks.get(0).get(1).getTitle());
+        assertEquals("Heat \"Director's Cut\"", chunks.get(1).get(1).getTitle());
+        assertEquals(LocalDate.of(1995, 12, 15), chunks.get(1).get(1).getReleaseDate());
+    }
+
+    @Test
+    void givenCsvExportWithLineBreaksInTitles_whenImported_thenFieldsRoundTrip() throws IOException {
+        acceptValidMovies();
+        ByteArrayOutputStream export = new ByteArrayOutputStream();
+        CsvMovieExportWriter writer = new CsvMovieExportWriter(export);
+        writer.handle(1L, "Heat,\n\"Director's Cut\"", "Crime", LocalDate.of(1995, 12, 15));
+        writer.handle(2L, "Inception", "Sci-Fi", LocalDate.of(2010, 7, 16));
+        writer.finish();
+
+        MovieImportReportDto report = importService.importMovies(
+                new ByteArrayInputStream(export.toByteArray()), MovieImportFormat.CSV);
+
+        assertEquals(2, report.getImported());
+        assertEquals(0, report.getFailed());
+        List<MovieDto> imported = chunks.stream().flatMap(List::stream).toList();
+        assertEquals("Heat,\n\"Director's Cut\"", imported.get(0).getTitle());
+        assertEquals("Crime", imported.get(0).getGenre());
+        assertEquals("Inception", imported.get(1).getTitle());
+    }
+
+    @Test
+    void givenCsvWithQuoteNeverClosed_whenImport_thenReportsRowItStartsOn() {
+        acceptValidMovies();
+        String csv = """
+                title,genre,releaseDate
+                Inception,Sci-Fi,2010-07-16
+                "Broken,Drama,2020-01-01
+                Heat,Crime,1995-12-15
+                """;
+
+        MovieImportReportDto report = importService.importMovies(stream(csv), MovieImportFormat.CSV);
+
+        assertEquals(1, report.getImported());
+        assertEquals(List.of(3L), report.getFailedRows().stream().map(MovieImportErrorDto::getRow).toList());
+        assertEquals("Unterminated quoted field", report.getFailedRows().get(0).getMessage());
+    }
+
+    @Test
+    void givenNdjsonWithMalformedLine_whenImport_thenSkipsItAndImportsTheRest() {
+        acceptValidMovies();
+        String ndjson = """
+                {"title":"Inception","genre":"Sci-Fi","releaseDate":"2010-07-16"}
+                {"title":
+                {"title":"Heat","genre":"Crime","releaseDate":"1995-12-15"}
+                """;
+
+        MovieImportReportDto report = importService.importMovies(stream(ndjson), MovieImportFormat.NDJSON);
+
+        assertEquals(3, report.getRowsRead());
+        assertEquals(2, report.getImported());
+        assertEquals(List.of(2L), report.getFailedRows().stream().map(MovieImportErrorDto::getRow).toList());
+    }
+
+    @Test
+    void givenCsvWithoutRequiredColumns_whenImport_thenThrowsInvalidDataException() {
+        assertThrows(InvalidDataException.class,
+                () -> importService.importMovies(stream("title,genre\nHeat,Crime\n"), MovieImportFormat.CSV));
+        verifyNoInteractions(movieWriter);
+    }
+
+    @Test
+    void givenWriterFails_whenImport_thenStopsParsingAndRethrows() {
+        when(movieWriter.saveMovies(anyList())).thenThrow(new DatabaseOperationException("Failed to save movies", null));
+        StringBuilder csv = new StringBuilder("title,genre,releaseDate\n");
+        for (int i = 0; i < 1000; i++) {
+            csv.append("Movie ").append(i).append(",Drama,2000-01-01\n");
+        }
+
+        DatabaseOperationException exception = assertThrows(DatabaseOperationException.class,
+                () -> importService.importMovies(stream(csv.toString()), MovieImportFormat.CSV));
+
+        assertEquals("Failed to save movies", exception.getMessage());
+        assertTrue(importService.getActiveImports().isEmpty());
+    }
+
+    @Test
+    void givenInputFailsWithRuntimeException_whenImport_thenWriterIsReleasedForNextImport() {
+        acceptValidMovies();
+        InputStream failing = new SequenceInputStream(stream("title,genre,releaseDate\nHeat,Crime,1995-12-15\n"),
+                new InputStream() {
+                    @Override
+                    public int read() {
+                        throw new IllegalStateException("connection reset");
+                    }
+                });
+
+        assertThrows(IllegalStateException.class, () -> importService.importMovies(failing, MovieImportFormat.CSV));
+
+        MovieImportReportDto report = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> importService.importMovies(stream("title,genre,releaseDate\nHeat,Crime,1995-12-15\n"),
+                        MovieImportFormat.CSV));
+        assertEquals(1, report.getImported());
+    }
+
+    @Test
+    void givenLineLongerThanLimit_whenImport_thenReportsItWithoutKeepingIt() {
+        acceptValidMovies();
+        String longTitle = "x".repeat(MovieImportFormat.MAX_LINE_LENGTH + 1);
+        String csv = "title,genre,releaseDate\n" + longTitle + ",Drama,2000-01-01\r\nHeat,Crime,1995-12-15\n";
+        String ndjson = "{\"title\":\"" + longTitle + "\",\"genre\":\"Drama\"}\n{\"title\":\"Heat\",\"genre\":\"Crime\"}\n";
+
+        MovieImportReportDto csvReport = importService.importMovies(stream(csv), MovieImportFormat.CSV);
+        MovieImportReportDto ndjsonReport = importService.importMovies(stream(ndjson), MovieImportFormat.NDJSON);
+
+        for (MovieImportReportDto report : List.of(csvReport, ndjsonReport)) {
+            assertEquals(1, report.getImported());
+            assertEquals(1, report.getFailed());
+            assertTrue(report.getFailedRows().get(0).getMessage().startsWith("Line is longer than"));
+        }
+        assertEquals(2, csvReport.getFailedRows().get(0).getRow());
+        assertEquals(1, ndjsonReport.getFailedRows().get(0).getRow());
+    }
+
+    private void acceptValidMovies() {
+        when(movieWriter.saveMovies(anyList())).thenAnswer(invocation -> {
+            List<MovieDto> movies = invocation.getArgument(0);
+            chunks.add(List.copyOf(movies));
+            List<Movie> saved = new ArrayList<>();
+            List<MovieBatchErrorDto> errors = new ArrayList<>();
+            for (int i = 0; i < movies.size(); i++) {
+                MovieDto movie = movies.get(i);
+                if (movie.getGenre() == null) {
+                    errors.add(new MovieBatchErrorDto(i, "Genre cannot be null or empty"));
+                } else {
+                    saved.add(Movie.builder().title(movie.getTitle()).build());
+                }
+            }
+            return new MovieBatchResultDto(saved, errors);
+        });
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
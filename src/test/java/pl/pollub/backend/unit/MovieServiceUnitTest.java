@@ -1,21 +1,48 @@
 package pl.pollub.backend.unit;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
+import pl.pollub.backend.dto.movie.MovieBatchErrorDto;
+import pl.pollub.backend.dto.movie.MovieBatchResultDto;
 import pl.pollub.backend.dto.movie.MovieDto;
 import pl.pollub.backend.exception.DatabaseOperationException;
 import pl.pollub.backend.exception.InvalidDataException;
 import pl.pollub.backend.exception.MovieNotFoundException;
+import pl.pollub.backend.exception.MovieVersionConflictException;
+import pl.pollub.backend.model.movie.Genre;
 import pl.pollub.backend.model.movie.Movie;
 import pl.pollub.backend.repository.movie.IMovieRepository;
+import pl.pollub.backend.service.movie.GenreService;
+import pl.pollub.backend.service.movie.IMovieReader;
 import pl.pollub.backend.service.movie.MovieService;
+import pl.pollub.backend.util.cache.FilterResultCache;
+import pl.pollub.backend.util.cache.MovieCache;
+import pl.pollub.backend.util.catalog.MovieCatalog;
+import pl.pollub.backend.util.filter.GenreFilter;
+import pl.pollub.backend.util.filter.YearFilter;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -24,7 +51,8 @@ import static org.mockito.Mockito.*;
 class MovieServiceUnitTest {
 
     private final IMovieRepository movieRepository = mock(IMovieRepository.class);
-    private final MovieService movieService = new MovieService(movieRepository);
+    private final GenreService genreService = mock(GenreService.class);
+    private final MovieService movieService = newMovieService(new MovieCatalog(true, 1, Integer.MAX_VALUE));
 
     @Test
     void givenValidMovieData_whenSaveMovie_thenReturnsMovie(){
@@ -222,12 +250,6 @@ class MovieServiceUnitTest {
     void givenValidMovieWithSingleFieldUpdate_whenUpdateMovie_thenUpdatesOnlyProvidedField() {
 
         Long movieId = 1L;
-        Movie existingMovie = new Movie();
-        existingMovie.setId(movieId);
-        existingMovie.setTitle("Original Title");
-        existingMovie.setGenre("Original Genre");
-        existingMovie.setReleaseDate(LocalDate.of(2000, 1, 1));
-
         MovieDto movieDto = new MovieDto();
         movieDto.setTitle("Updated Title");
 
@@ -237,8 +259,8 @@ class MovieServiceUnitTest {
         updatedMovie.setGenre("Original Genre");
         updatedMovie.setReleaseDate(LocalDate.of(2000, 1, 1));
 
-        when(movieRepository.findById(movieId)).thenReturn(Optional.of(existingMovie));
-        when(movieRepository.save(any(Movie.class))).thenReturn(updatedMovie);
+        when(movieRepository.updateMovie(eq(movieId), isNull(), eq("Updated Title"), isNull(), isNull(), any(Instant.class)))
+                .thenReturn(Optional.of(updatedMovie));
 
         Movie result = movieService.updateMovie(movieId, movieDto);
 
@@ -248,25 +270,15 @@ class MovieServiceUnitTest {
         assertEquals("Original Genre", result.getGenre());
         assertEquals(LocalDate.of(2000, 1, 1), result.getReleaseDate());
 
-        ArgumentCaptor<Movie> movieCaptor = ArgumentCaptor.forClass(Movie.class);
-        verify(movieRepository, times(1)).save(movieCaptor.capture());
-
-        Movie capturedMovie = movieCaptor.getValue();
-        assertEquals("Updated Title", capturedMovie.getTitle());
-        assertEquals("Original Genre", capturedMovie.getGenre());
-        assertEquals(LocalDate.of(2000, 1, 1), capturedMovie.getReleaseDate());
+        verify(movieRepository, never()).findById(anyLong());
+        verify(movieRepository, never()).save(any(Movie.class));
+        verifyNoInteractions(genreService);
     }
 
     @Test
     void givenValidMovieWithMultipleFieldUpdates_whenUpdateMovie_thenUpdatesOnlyProvidedFields() {
 
         Long movieId = 1L;
-        Movie existingMovie = new Movie();
-        existingMovie.setId(movieId);
-        existingMovie.setTitle("Original Title");
-        existingMovie.setGenre("Original Genre");
-        existingMovie.setReleaseDate(LocalDate.of(2000, 1, 1));
-
         MovieDto movieDto = new MovieDto();
         movieDto.setGenre("Updated Genre");
         movieDto.setReleaseDate(LocalDate.of(2020, 5, 20));
@@ -277,8 +289,9 @@ class MovieServiceUnitTest {
         updatedMovie.setGenre("Updated Genre");
         updatedMovie.setReleaseDate(LocalDate.of(2020, 5, 20));
 
-        when(movieRepository.findById(movieId)).thenReturn(Optional.of(existingMovie));
-        when(movieRepository.save(any(Movie.class))).thenReturn(updatedMovie);
+        when(genreService.resolve("Updated Genre")).thenReturn(Genre.builder().id(7).code("updated genre").name("Updated Genre").build());
+        when(movieRepository.updateMovie(eq(movieId), isNull(), isNull(), eq(7), eq(LocalDate.of(2020, 5, 20)), any(Instant.class)))
+                .thenReturn(Optional.of(updatedMovie));
 
         Movie result = movieService.updateMovie(movieId, movieDto);
 
@@ -287,14 +300,6 @@ class MovieServiceUnitTest {
         assertEquals("Original Title", result.getTitle());
         assertEquals("Updated Genre", result.getGenre());
         assertEquals(LocalDate.of(2020, 5, 20), result.getReleaseDate());
-
-        ArgumentCaptor<Movie> movieCaptor = ArgumentCaptor.forClass(Movie.class);
-        verify(movieRepository, times(1)).save(movieCaptor.capture());
-
-        Movie capturedMovie = movieCaptor.getValue();
-        assertEquals("Original Title", capturedMovie.getTitle());
-        assertEquals("Updated Genre", capturedMovie.getGenre());
-        assertEquals(LocalDate.of(2020, 5, 20), capturedMovie.getReleaseDate());
     }
 
     @Test
@@ -306,19 +311,10 @@ class MovieServiceUnitTest {
         movieDto.setGenre("Updated Genre");
         movieDto.setReleaseDate(LocalDate.of(2020, 5, 20));
 
-        Movie existingMovie = new Movie();
-        existingMovie.setId(movieId);
-        existingMovie.setTitle("Original Title");
-        existingMovie.setGenre("Original Genre");
-        existingMovie.setReleaseDate(LocalDate.of(2000, 1, 1));
-
-        when(movieRepository.findById(movieId)).thenReturn(Optional.of(existingMovie));
-
         InvalidDataException exception = assertThrows(InvalidDataException.class, () -> movieService.updateMovie(movieId, movieDto));
         assertEquals("Title cannot be empty", exception.getMessage());
 
-        verify(movieRepository, times(1)).findById(movieId);
-        verify(movieRepository, never()).save(any(Movie.class));
+        verify(movieRepository, never()).updateMovie(any(), any(), any(), any(), any(), any());
     }
 
 
@@ -331,75 +327,332 @@ class MovieServiceUnitTest {
         movieDto.setGenre("Updated Genre");
         movieDto.setReleaseDate(LocalDate.of(2020, 1, 1));
 
-        when(movieRepository.findById(movieId)).thenReturn(Optional.empty());
+        when(genreService.resolve("Updated Genre")).thenReturn(Genre.builder().id(7).code("updated genre").name("Updated Genre").build());
+        when(movieRepository.updateMovie(eq(movieId), isNull(), any(), eq(7), any(), any())).thenReturn(Optional.empty());
 
         MovieNotFoundException exception = assertThrows(MovieNotFoundException.class, () -> movieService.updateMovie(movieId, movieDto));
         assertEquals("Movie with ID 1 not found", exception.getMessage());
 
-        verify(movieRepository, times(1)).findById(movieId);
-        verify(movieRepository, never()).save(any(Movie.class));
+        verify(movieRepository, never()).existsById(anyLong());
+    }
+
+    @Test
+    void givenStaleVersion_whenUpdateMovie_thenThrowsMovieVersionConflictException() {
+        MovieDto movieDto = new MovieDto();
+        movieDto.setTitle("Updated Title");
+
+        when(movieRepository.updateMovie(eq(1L), eq(3L), any(), any(), any(), any())).thenReturn(Optional.empty());
+        when(movieRepository.existsById(1L)).thenReturn(true);
+        when(movieRepository.existsById(2L)).thenReturn(false);
+        when(movieRepository.updateMovie(eq(2L), eq(3L), any(), any(), any(), any())).thenReturn(Optional.empty());
+
+        assertThrows(MovieVersionConflictException.class, () -> movieService.updateMovie(1L, movieDto, 3L));
+        assertThrows(MovieNotFoundException.class, () -> movieService.updateMovie(2L, movieDto, 3L));
     }
 
     @Test
     void givenRepositoryThrowsDataAccessException_whenUpdateMovie_thenThrowsDatabaseOperationException() {
         Long movieId = 1L;
-        Movie existingMovie = new Movie();
-        existingMovie.setId(movieId);
-        existingMovie.setTitle("Original Title");
-        existingMovie.setGenre("Original Genre");
-        existingMovie.setReleaseDate(LocalDate.of(2000, 1, 1));
-
         MovieDto movieDto = new MovieDto();
         movieDto.setTitle("Updated Title");
 
-        when(movieRepository.findById(movieId)).thenReturn(Optional.of(existingMovie));
-        when(movieRepository.save(any(Movie.class))).thenThrow(new DataAccessException("Database error") {});
+        when(movieRepository.updateMovie(eq(movieId), any(), any(), any(), any(), any()))
+                .thenThrow(new DataAccessException("Database error") {});
 
         DatabaseOperationException exception = assertThrows(DatabaseOperationException.class, () -> movieService.updateMovie(movieId, movieDto));
         assertEquals("Failed to update movie", exception.getMessage());
 
-        verify(movieRepository, times(1)).findById(movieId);
-        verify(movieRepository, times(1)).save(any(Movie.class));
+        verify(movieRepository, times(1)).updateMovie(eq(movieId), any(), any(), any(), any(), any());
     }
 
     @Test
     void givenExistingMovieId_whenDeleteMovie_thenMovieIsDeleted() {
         Long movieId = 1L;
 
-        when(movieRepository.existsById(movieId)).thenReturn(true);
-        doNothing().when(movieRepository).deleteById(movieId);
+        when(movieRepository.deleteMovieById(movieId)).thenReturn(1);
 
         movieService.deleteMovie(movieId);
 
-        verify(movieRepository, times(1)).existsById(movieId);
-        verify(movieRepository, times(1)).deleteById(movieId);
+        verify(movieRepository, times(1)).deleteMovieById(movieId);
+        verify(movieRepository, never()).existsById(anyLong());
     }
 
     @Test
     void givenNonExistentMovieId_whenDeleteMovie_thenThrowsMovieNotFoundException() {
         Long movieId = 1L;
 
-        when(movieRepository.existsById(movieId)).thenReturn(false);
+        when(movieRepository.deleteMovieById(movieId)).thenReturn(0);
 
         MovieNotFoundException exception = assertThrows(MovieNotFoundException.class, () -> movieService.deleteMovie(movieId));
         assertEquals("Movie with ID 1 not found", exception.getMessage());
 
-        verify(movieRepository, times(1)).existsById(movieId);
-        verify(movieRepository, never()).deleteById(anyLong());
+        verify(movieRepository, times(1)).deleteMovieById(movieId);
+    }
+
+    @Test
+    void givenStaleVersion_whenDeleteMovie_thenThrowsMovieVersionConflictException() {
+        when(movieRepository.deleteMovieByIdAndVersion(1L, 3L)).thenReturn(0);
+        when(movieRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(MovieVersionConflictException.class, () -> movieService.deleteMovie(1L, 3L));
+        verify(movieRepository, never()).deleteMovieById(anyLong());
     }
 
     @Test
     void givenRepositoryThrowsDataAccessException_whenDeleteMovie_thenThrowsDatabaseOperationException() {
         Long movieId = 1L;
 
-        when(movieRepository.existsById(movieId)).thenReturn(true);
-        doThrow(new DataAccessException("Database error") {}).when(movieRepository).deleteById(movieId);
+        when(movieRepository.deleteMovieById(movieId)).thenThrow(new DataAccessException("Database error") {});
 
         DatabaseOperationException exception = assertThrows(DatabaseOperationException.class, () -> movieService.deleteMovie(movieId));
         assertEquals("Failed to delete movie", exception.getMessage());
 
-        verify(movieRepository, times(1)).existsById(movieId);
-        verify(movieRepository, times(1)).deleteById(movieId);
+        verify(movieRepository, times(1)).deleteMovieById(movieId);
     }
 
-}
\ No newline at end of file
+    @Test
+    void givenRepeatedFilters_whenFilterMovies_thenLoadsCatalogOnce() {
+        Movie movie1 = Movie.builder().id(1L).title("Inception").genre("Sci-Fi")
+                .releaseDate(LocalDate.of(2010, 7, 16)).build();
+        Movie movie2 = Movie.builder().id(2L).title("Heat").genre("Crime")
+                .releaseDate(LocalDate.of(1995, 12, 15)).build();
+
+        when(movieRepository.findAll()).thenReturn(Arrays.asList(movie1, movie2));
+
+        Movie[] byGenre = movieService.filterMovies(new GenreFilter("sci-fi"));
+        Movie[] byYear = movieService.filterMovies(new YearFilter(1995));
+
+        assertEquals(1, byGenre.length);
+        assertEquals("Inception", byGenre[0].getTitle());
+        assertEquals(1, byYear.length);
+        assertEquals("Heat", byYear[0].getTitle());
+
+        verify(movieRepository, times(1)).findAll();
+    }
+
+    @Test
+    void givenLoadedCatalog_whenSaveMovie_thenFilterSeesNewMovieWithoutReload() {
+        when(movieRepository.findAll()).thenReturn(Collections.emptyList());
+        movieService.filterMovies(new GenreFilter("Sci-Fi"));
+
+        MovieDto movieDto = new MovieDto("Dune", "Sci-Fi", LocalDate.of(2021, 9, 15));
+        Movie savedMovie = Movie.builder().id(7L).title("Dune").genre("Sci-Fi")
+                .releaseDate(LocalDate.of(2021, 9, 15)).build();
+        when(movieRepository.save(any(Movie.class))).thenReturn(savedMovie);
+
+        movieService.saveMovie(movieDto);
+        Movie[] result = movieService.filterMovies(new GenreFilter("Sci-Fi"));
+
+        assertEquals(1, result.length);
+        assertEquals(7L, result[0].getId());
+        verify(movieRepository, times(1)).findAll();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void givenCatalogDisabled_whenFilterMovies_thenPushesFilterDownAsSpecification() {
+        MovieService uncachedService = newMovieService(new MovieCatalog(false, 1, Integer.MAX_VALUE));
+        Movie movie = Movie.builder().id(1L).title("Heat").genre("Crime")
+                .releaseDate(LocalDate.of(1995, 12, 15)).build();
+
+        when(movieRepository.findAll(any(Specification.class))).thenReturn(List.of(movie));
+
+        Movie[] result = uncachedService.filterMovies(new YearFilter(1995));
+
+        assertEquals(1, result.length);
+        verify(movieRepository, times(1)).findAll(any(Specification.class));
+        verify(movieRepository, never()).findAll();
+    }
+
+    @Test
+    void givenConcurrentWritesAndFilters_whenTagIsUnchanged_thenFilterResultMatchesTag() throws Exception {
+        int writes = 300;
+        AtomicLong ids = new AtomicLong();
+        when(movieRepository.findAll()).thenReturn(Collections.emptyList());
+        when(movieRepository.save(any(Movie.class))).thenAnswer(invocation -> {
+            Movie movie = invocation.getArgument(0);
+            movie.setId(ids.incrementAndGet());
+            return movie;
+        });
+        GenreFilter drama = new GenreFilter("Drama");
+        movieService.filterMovies(drama, null, writes);
+
+        Map<String, Integer> moviesByTag = new ConcurrentHashMap<>();
+        moviesByTag.put(movieService.getCatalogVersion().tag(), 0);
+        List<Map.Entry<String, Integer>> observed = Collections.synchronizedList(new ArrayList<>());
+        AtomicBoolean writing = new AtomicBoolean(true);
+        ExecutorService readers = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int reader = 0; reader < 3; reader++) {
+                results.add(readers.submit(() -> {
+                    while (writing.get()) {
+                        String before = movieService.getCatalogVersion().tag();
+                        int found = movieService.filterMovies(drama, null, writes).length;
+                        if (before.equals(movieService.getCatalogVersion().tag())) {
+                            observed.add(Map.entry(before, found));
+                        }
+                    }
+                }));
+            }
+            for (int i = 1; i <= writes; i++) {
+                movieService.saveMovie(new MovieDto("Movie " + i, "Drama", LocalDate.of(2000, 1, 1)));
+                moviesByTag.put(movieService.getCatalogVersion().tag(), i);
+            }
+            writing.set(false);
+            for (Future<?> result : results) {
+                result.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            readers.shutdownNow();
+        }
+
+        for (Map.Entry<String, Integer> observation : observed) {
+            assertEquals(moviesByTag.get(observation.getKey()), observation.getValue(), observation.getKey());
+        }
+        assertEquals(writes, movieService.filterMovies(drama, null, writes).length);
+    }
+
+    @Test
+    void givenCachedMovie_whenGetMovieByIdAgain_thenRepositoryIsNotQueried() {
+        Movie movie = Movie.builder().id(1L).title("Heat").genre("Crime")
+                .releaseDate(LocalDate.of(1995, 12, 15)).build();
+        when(movieRepository.findById(1L)).thenReturn(Optional.of(movie));
+
+        movieService.getMovieById(1L);
+        Movie result = movieService.getMovieById(1L);
+
+        assertEquals(movie, result);
+        assertNotSame(movie, result);
+        verify(movieRepository, times(1)).findById(1L);
+        assertEquals(1, movieService.getCacheStats().getHitCount());
+        assertEquals(0.5, movieService.getCacheStats().getHitRatio());
+    }
+
+    @Test
+    void givenCachedMovie_whenUpdateMovie_thenNextReadLoadsFreshValue() {
+        Movie movie = Movie.builder().id(1L).title("Heat").genre("Crime")
+                .releaseDate(LocalDate.of(1995, 12, 15)).build();
+        Movie updated = Movie.builder().id(1L).title("Heat 2").genre("Crime")
+                .releaseDate(LocalDate.of(1995, 12, 15)).build();
+        when(movieRepository.findById(1L)).thenReturn(Optional.of(movie), Optional.of(updated));
+        when(movieRepository.updateMovie(eq(1L), any(), any(), any(), any(), any())).thenReturn(Optional.of(updated));
+
+        movieService.getMovieById(1L);
+        movieService.updateMovie(1L, new MovieDto("Heat 2", null, null));
+
+        assertEquals("Heat 2", movieService.getMovieById(1L).getTitle());
+    }
+
+    @Test
+    void givenConcurrentMissesForSameId_whenGetMovieById_thenLoadsOnce() throws Exception {
+        Movie movie = Movie.builder().id(1L).title("Heat").genre("Crime")
+                .releaseDate(LocalDate.of(1995, 12, 15)).build();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(movieRepository.findById(1L)).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await();
+            return Optional.of(movie);
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Movie>> results = new ArrayList<>();
+            results.add(executor.submit(() -> movieService.getMovieById(1L)));
+            loading.await();
+            for (int i = 0; i < 3; i++) {
+                results.add(executor.submit(() -> movieService.getMovieById(1L)));
+            }
+            Thread.sleep(50);
+            release.countDown();
+            for (Future<Movie> result : results) {
+                assertEquals("Heat", result.get(5, TimeUnit.SECONDS).getTitle());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(movieRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void givenRepeatedFilter_whenFilterMovies_thenServedFromCacheUntilNextWrite() {
+        MovieService uncachedService = newMovieService(new MovieCatalog(false, 1, Integer.MAX_VALUE));
+        Movie heat = Movie.builder().id(1L).title("Heat").genre("Crime")
+                .releaseDate(LocalDate.of(1995, 12, 15)).build();
+        Movie casino = Movie.builder().id(2L).title("Casino").genre("Crime")
+                .releaseDate(LocalDate.of(1995, 11, 22)).build();
+        when(movieRepository.findAll(any(Specification.class)))
+                .thenReturn(List.of(heat))
+                .thenReturn(List.of(heat, casino));
+        when(movieRepository.save(any(Movie.class))).thenReturn(casino);
+
+        assertEquals(1, uncachedService.filterMovies(new GenreFilter("Crime")).length);
+        assertEquals(1, uncachedService.filterMovies(new GenreFilter("crime")).length);
+        verify(movieRepository, times(1)).findAll(any(Specification.class));
+
+        uncachedService.saveMovie(new MovieDto("Casino", "Crime", LocalDate.of(1995, 11, 22)));
+
+        assertEquals(2, uncachedService.filterMovies(new GenreFilter("Crime")).length);
+        verify(movieRepository, times(2)).findAll(any(Specification.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void givenBatchWithInvalidItems_whenSaveMovies_thenSavesValidItemsAndReportsInvalidOnes() {
+        MovieDto valid = new MovieDto("Dune", "Sci-Fi", LocalDate.of(2021, 9, 15));
+        MovieDto missingTitle = new MovieDto("", "Sci-Fi", LocalDate.of(2021, 9, 15));
+        when(movieRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        MovieBatchResultDto result = movieService.saveMovies(Arrays.asList(missingTitle, valid, null));
+
+        assertEquals(1, result.getSaved().size());
+        assertEquals("Dune", result.getSaved().get(0).getTitle());
+        assertEquals(List.of(0, 2), result.getErrors().stream().map(MovieBatchErrorDto::getIndex).toList());
+        assertEquals("Title cannot be null or empty", result.getErrors().get(0).getMessage());
+        verify(movieRepository, times(1)).saveAllAndFlush(anyList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void givenBatchWithRowRejectedByDatabase_whenSaveMovies_thenSavesOtherItemsAndReportsIt() {
+        when(movieRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> {
+            List<Movie> movies = invocation.getArgument(0);
+            if (movies.stream().anyMatch(movie -> movie.getTitle().equals("Rejected"))) {
+                throw new DataIntegrityViolationException("constraint violated");
+            }
+            return movies;
+        });
+
+        MovieBatchResultDto result = movieService.saveMovies(List.of(
+                new MovieDto("Dune", "Sci-Fi", LocalDate.of(2021, 9, 15)),
+                new MovieDto("Rejected", "Sci-Fi", LocalDate.of(2021, 9, 15)),
+                new MovieDto("Tenet", "Sci-Fi", LocalDate.of(2020, 8, 26)),
+                new MovieDto("x".repeat(256), "Sci-Fi", LocalDate.of(2020, 8, 26))));
+
+        assertEquals(List.of("Dune", "Tenet"), result.getSaved().stream().map(Movie::getTitle).toList());
+        assertEquals(List.of(1, 3), result.getErrors().stream().map(MovieBatchErrorDto::getIndex).toList());
+        assertEquals("Movie was rejected by the database", result.getErrors().get(0).getMessage());
+        assertEquals("Title cannot be longer than 255 characters", result.getErrors().get(1).getMessage());
+    }
+
+    @Test
+    void givenDatabaseUnavailable_whenSaveMovies_thenFailsWithoutRetryingEachItem() {
+        when(movieRepository.saveAllAndFlush(anyList())).thenThrow(new DataAccessResourceFailureException("down"));
+
+        assertThrows(DatabaseOperationException.class, () -> movieService.saveMovies(List.of(
+                new MovieDto("Dune", "Sci-Fi", LocalDate.of(2021, 9, 15)),
+                new MovieDto("Tenet", "Sci-Fi", LocalDate.of(2020, 8, 26)))));
+        verify(movieRepository, times(1)).saveAllAndFlush(anyList());
+    }
+
+    private MovieService newMovieService(MovieCatalog catalog) {
+        MovieCache cache = new MovieCache(1000);
+        IMovieReader transactionalReader = mock(IMovieReader.class);
+        when(transactionalReader.getAllMovies()).thenAnswer(invocation -> movieRepository.findAll());
+        return new MovieService(movieRepository, catalog, cache, new FilterResultCache(100),
+                List.of(catalog, cache), genreService, transactionalReader, mock(PlatformTransactionManager.class),
+                new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,161 @@
+package pl.pollub.backend.unit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import pl.pollub.backend.util.datasource.PrimaryReads;
+import pl.pollub.backend.util.datasource.ReadYourWritesTracker;
+import pl.pollub.backend.util.datasource.ReplicaDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReplicaDataSourceUnitTest {
+    private DataSource primary;
+    private DataSource firstReplica;
+    private DataSource secondReplica;
+    private Connection primaryConnection;
+    private Connection firstConnection;
+    private Connection secondConnection;
+    private ReadYourWritesTracker tracker;
+    private ReplicaDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = mock(DataSource.class);
+        firstReplica = mock(DataSource.class);
+        secondReplica = mock(DataSource.class);
+        primaryConnection = mock(Connection.class);
+        firstConnection = mock(Connection.class);
+        secondConnection = mock(Connection.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(firstReplica.getConnection()).thenReturn(firstConnection);
+        when(secondReplica.getConnection()).thenReturn(secondConnection);
+
+        tracker = new ReadYourWritesTracker(Duration.ofMinutes(1));
+        dataSource = new ReplicaDataSource(primary, List.of(firstReplica, secondReplica), tracker, Duration.ofSeconds(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void givenHealthyReplicas_whenGettingConnections_thenReplicasAreUsedInTurn() throws SQLException {
+        assertSame(firstConnection, dataSource.getConnection());
+        assertSame(secondConnection, dataSource.getConnection());
+        assertSame(firstConnection, dataSource.getConnection());
+        verify(primary, never()).getConnection();
+    }
+
+    @Test
+    void givenClientThatJustWrote_whenGettingConnection_thenPrimaryIsUsed() throws SQLException {
+        authenticate("writer");
+        tracker.recordWrite();
+
+        assertSame(primaryConnection, dataSource.getConnection());
+
+        authenticate("reader");
+        assertSame(firstConnection, dataSource.getConnection());
+    }
+
+    @Test
+    void givenReadWriteTransaction_whenItCommits_thenClientIsPinnedToPrimary() throws SQLException {
+        authenticate("writer");
+
+        runTransaction(false, true);
+
+        assertSame(primaryConnection, dataSource.getConnection());
+    }
+
+    @Test
+    void givenReadOrRolledBackWork_whenItCompletes_thenClientStaysOnReplicas() throws SQLException {
+        authenticate("reader");
+
+        tracker.recordWriteOnCommit();
+        runTransaction(true, true);
+        runTransaction(false, false);
+
+        assertSame(firstConnection, dataSource.getConnection());
+    }
+
+    @Test
+    void givenFailingReplica_whenGettingConnections_thenItIsSkippedUntilHealthy() throws SQLException {
+        when(firstReplica.getConnection()).thenThrow(new SQLException("down"));
+
+        assertSame(secondConnection, dataSource.getConnection());
+        assertSame(secondConnection, dataSource.getConnection());
+        assertEquals(1, dataSource.getHealthyReplicaCount());
+
+        reset(firstReplica);
+        when(firstReplica.getConnection()).thenReturn(firstConnection);
+        when(firstConnection.isValid(anyInt())).thenReturn(true);
+        when(secondConnection.isValid(anyInt())).thenReturn(true);
+        dataSource.checkHealth();
+
+        assertEquals(2, dataSource.getHealthyReplicaCount());
+    }
+
+    @Test
+    void givenNoHealthyReplica_whenGettingConnection_thenPrimaryIsUsed() throws SQLException {
+        when(firstConnection.isValid(anyInt())).thenReturn(false);
+        when(secondReplica.getConnection()).thenThrow(new SQLException("down"));
+        dataSource.checkHealth();
+
+        assertEquals(0, dataSource.getHealthyReplicaCount());
+        assertSame(primaryConnection, dataSource.getConnection());
+    }
+
+    @Test
+    void givenSharedStateLoad_whenGettingConnection_thenPrimaryIsUsed() throws SQLException {
+        Connection connection = PrimaryReads.call(() -> {
+            try {
+                return dataSource.getConnection();
+            } catch (SQLException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+
+        assertSame(primaryConnection, connection);
+        assertSame(firstConnection, dataSource.getConnection());
+    }
+
+    @Test
+    void givenExplicitCredentials_whenGettingConnection_thenFeatureIsNotSupported() {
+        assertThrows(SQLFeatureNotSupportedException.class, () -> dataSource.getConnection("user", "secret"));
+    }
+
+    private void runTransaction(boolean readOnly, boolean commit) {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+        try {
+            tracker.recordWriteOnCommit();
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            if (commit) {
+                TransactionSynchronizationUtils.invokeAfterCommit(synchronizations);
+            }
+            TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, commit
+                    ? TransactionSynchronization.STATUS_COMMITTED : TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clear();
+        }
+    }
+
+    private static void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(username, null, List.of()));
+    }
+}
@@ -0,0 +1,129 @@
+package pl.pollub.backend.unit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pl.pollub.backend.model.movie.Movie;
+import pl.pollub.backend.util.search.TitleSearchIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TitleSearchIndexUnitTest {
+
+    private TitleSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TitleSearchIndex(1);
+        index.loadIfNeeded(() -> List.of(
+                movie(1L, "The Matrix"),
+                movie(2L, "The Matrix Reloaded"),
+                movie(3L, "Inception"),
+                movie(4L, "The Godfather"),
+                movie(5L, "Amélie")));
+    }
+
+    @Test
+    void givenSeveralTerms_whenSearch_thenMoviesMatchingMoreRareTermsRankFirst() {
+        assertEquals(List.of(2L, 1L, 4L), ids(index.search("the matrix reloaded", 10)));
+    }
+
+    @Test
+    void givenShorterTitle_whenSearchWithSameTerms_thenShorterTitleRanksFirst() {
+        assertEquals(List.of(1L, 2L), ids(index.search("MATRIX", 10)));
+    }
+
+    @Test
+    void givenTypos_whenSearch_thenMatchesByEditDistance() {
+        assertEquals(List.of(3L), ids(index.search("incepton", 10)));
+        assertEquals(List.of(1L, 2L), ids(index.search("matirx", 10)));
+        assertEquals(List.of(4L), ids(index.search("godfahter", 10)));
+        assertTrue(index.search("xyz", 10).isEmpty());
+    }
+
+    @Test
+    void givenAccentsAndPunctuation_whenSearch_thenTermsAreNormalized() {
+        assertEquals(List.of(5L), ids(index.search("amelie!", 10)));
+    }
+
+    @Test
+    void givenUpdatedAndDeletedMovies_whenSearch_thenIndexFollowsChanges() {
+        index.movieSaved(movie(3L, "Interstellar"));
+        index.movieDeleted(1L);
+        index.movieSaved(movie(6L, "Matrix Resurrections"));
+
+        assertTrue(index.search("inception", 10).isEmpty());
+        assertEquals(List.of(3L), ids(index.search("interstelar", 10)));
+        assertEquals(List.of(6L, 2L), ids(index.search("matrix", 10)));
+    }
+
+    @Test
+    void givenSavesArrivingOutOfOrder_whenSearch_thenNewerTitleIsKept() {
+        index.movieSaved(movie(3L, "Interstellar").toBuilder().version(2L).build());
+        index.movieSaved(movie(3L, "Inception Redux").toBuilder().version(1L).build());
+
+        assertEquals(List.of(3L), ids(index.search("interstellar", 10)));
+        assertTrue(index.search("redux", 10).isEmpty());
+    }
+
+    @Test
+    void givenFreedSlotsReusedOutOfOrder_whenSearch_thenPostingsStayConsistent() {
+        index.movieDeleted(1L);
+        index.movieDeleted(4L);
+        index.movieSaved(movie(7L, "The Thing"));
+        index.movieSaved(movie(8L, "The Birds"));
+        index.movieDeleted(2L);
+
+        assertEquals(List.of(7L, 8L), ids(index.search("the", 10)).stream().sorted().toList());
+        assertEquals(List.of(8L), ids(index.search("birds", 10)));
+        assertTrue(index.search("matrix", 10).isEmpty());
+    }
+
+    @Test
+    void givenLimit_whenSearch_thenReturnsOnlyBestMatches() {
+        assertEquals(List.of(1L), ids(index.search("matrix", 1)));
+    }
+
+    @Test
+    void givenResultModifiedByCaller_whenSearchAgain_thenIndexedMovieIsUnchanged() {
+        index.search("inception", 10).get(0).setTitle("Changed");
+
+        assertEquals("Inception", index.search("inception", 10).get(0).getTitle());
+    }
+
+    @Test
+    void givenMoreConcurrentSearchesThanBuffers_whenSearch_thenEveryResultIsCorrect() throws Exception {
+        TitleSearchIndex pooledIndex = new TitleSearchIndex(2);
+        pooledIndex.loadIfNeeded(() -> List.of(
+                movie(1L, "The Matrix"),
+                movie(2L, "The Matrix Reloaded"),
+                movie(3L, "Inception")));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<Long>>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                String query = i % 2 == 0 ? "matrix" : "incepton";
+                results.add(executor.submit(() -> ids(pooledIndex.search(query, 10))));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals(i % 2 == 0 ? List.of(1L, 2L) : List.of(3L), results.get(i).get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Movie movie(Long id, String title) {
+        return Movie.builder().id(id).title(title).genre("Drama").build();
+    }
+
+    private static List<Long> ids(List<Movie> movies) {
+        return movies.stream().map(Movie::getId).toList();
+    }
+}
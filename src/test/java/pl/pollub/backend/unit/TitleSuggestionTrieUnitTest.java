@@ -0,0 +1,109 @@
+package pl.pollub.backend.unit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pl.pollub.backend.dto.movie.MovieSuggestionDto;
+import pl.pollub.backend.model.movie.Movie;
+import pl.pollub.backend.util.search.TitleSuggestionTrie;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TitleSuggestionTrieUnitTest {
+
+    private TitleSuggestionTrie trie;
+
+    @BeforeEach
+    void setUp() {
+        trie = new TitleSuggestionTrie();
+        trie.loadIfNeeded(() -> List.of(
+                movie(1L, "The Matrix", LocalDate.of(1999, 3, 31)),
+                movie(2L, "The Matrix Reloaded", LocalDate.of(2003, 5, 15)),
+                movie(3L, "Matilda", LocalDate.of(1996, 8, 2)),
+                movie(4L, "The Godfather", LocalDate.of(1972, 3, 24)),
+                movie(5L, "Amélie", LocalDate.of(2001, 4, 25))));
+    }
+
+    @Test
+    void givenPrefix_whenSuggest_thenShorterTitlesRankFirst() {
+        assertEquals(List.of(3L, 1L, 2L), ids(trie.suggest("mat", 10)));
+        assertEquals(List.of(1L, 2L), ids(trie.suggest("matr", 10)));
+        assertEquals(List.of(1L, 4L, 2L), ids(trie.suggest("the", 10)));
+    }
+
+    @Test
+    void givenPrefixEndingInsideEdgeOrMissing_whenSuggest_thenMatchesOnlyExistingKeys() {
+        assertEquals(List.of(2L), ids(trie.suggest("the matrix rel", 10)));
+        assertEquals(List.of(4L), ids(trie.suggest("godf", 10)));
+        assertTrue(trie.suggest("matrixx", 10).isEmpty());
+        assertTrue(trie.suggest("xyz", 10).isEmpty());
+    }
+
+    @Test
+    void givenAccentsAndCase_whenSuggest_thenPrefixIsNormalized() {
+        assertEquals(List.of(5L), ids(trie.suggest("AMÉL", 10)));
+        assertEquals("Amélie", trie.suggest("ame", 10).get(0).getTitle());
+    }
+
+    @Test
+    void givenSavedAndDeletedMovies_whenSuggest_thenTrieIsPatchedIncrementally() {
+        trie.movieSaved(movie(6L, "Mat", LocalDate.of(2020, 1, 1)));
+        trie.movieSaved(movie(3L, "Heat", LocalDate.of(1995, 12, 15)));
+        trie.movieDeleted(1L);
+
+        assertEquals(List.of(6L, 2L), ids(trie.suggest("mat", 10)));
+        assertEquals(List.of(3L), ids(trie.suggest("he", 10)));
+        assertEquals(List.of(4L, 2L), ids(trie.suggest("the", 10)));
+
+        trie.movieDeleted(2L);
+        trie.movieDeleted(6L);
+
+        assertTrue(trie.suggest("mat", 10).isEmpty());
+        assertEquals(List.of(4L), ids(trie.suggest("t", 10)));
+    }
+
+    @Test
+    void givenSavesArrivingOutOfOrder_whenSuggest_thenNewerTitleIsKept() {
+        trie.movieSaved(movie(3L, "Heat", null).toBuilder().version(2L).build());
+        trie.movieSaved(movie(3L, "Heist", null).toBuilder().version(1L).build());
+
+        assertEquals(List.of(3L), ids(trie.suggest("hea", 10)));
+        assertTrue(trie.suggest("hei", 10).isEmpty());
+    }
+
+    @Test
+    void givenMoreMatchesThanKeptPerNode_whenBestIsDeleted_thenNextBestIsPromoted() {
+        List<Movie> movies = new ArrayList<>();
+        LongStream.rangeClosed(1, 15).forEach(id -> movies.add(movie(id, "Star " + "x".repeat((int) id), null)));
+        trie.invalidate();
+        trie.loadIfNeeded(() -> movies);
+
+        assertEquals(LongStream.rangeClosed(1, 10).boxed().toList(), ids(trie.suggest("star", 20)));
+        assertEquals(List.of(1L, 2L, 3L), ids(trie.suggest("st", 3)));
+
+        trie.movieDeleted(1L);
+
+        assertEquals(LongStream.rangeClosed(2, 11).boxed().toList(), ids(trie.suggest("s", 20)));
+    }
+
+    @Test
+    void givenInvalidatedTrie_whenSaved_thenIgnoredUntilReloaded() {
+        trie.invalidate();
+        trie.movieSaved(movie(6L, "Mat", null));
+
+        assertFalse(trie.isLoaded());
+        assertTrue(trie.suggest("mat", 10).isEmpty());
+    }
+
+    private static Movie movie(Long id, String title, LocalDate releaseDate) {
+        return Movie.builder().id(id).title(title).genre("Drama").releaseDate(releaseDate).build();
+    }
+
+    private static List<Long> ids(List<MovieSuggestionDto> suggestions) {
+        return suggestions.stream().map(MovieSuggestionDto::getId).toList();
+    }
+}
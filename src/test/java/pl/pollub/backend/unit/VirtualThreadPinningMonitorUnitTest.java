@@ -0,0 +1,68 @@
+package pl.pollub.backend.unit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pl.pollub.backend.config.VirtualThreadPinningMonitor;
+
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualThreadPinningMonitorUnitTest {
+    private static final long EVENT_TIMEOUT_MILLIS = 10_000;
+
+    private VirtualThreadPinningMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        monitor = new VirtualThreadPinningMonitor(Duration.ofMillis(10));
+        monitor.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        monitor.stop();
+    }
+
+    @Test
+    void givenVirtualThreadSleepingInSynchronizedBlock_whenMonitoring_thenPinIsReported() throws Exception {
+        Object lock = new Object();
+        Thread.ofVirtual().start(() -> {
+            synchronized (lock) {
+                sleep(50);
+            }
+        }).join();
+
+        long deadline = System.currentTimeMillis() + EVENT_TIMEOUT_MILLIS;
+        while (monitor.getPinnedCount() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertTrue(monitor.getPinnedCount() > 0);
+    }
+
+    @Test
+    void givenVirtualThreadSleepingUnderReentrantLock_whenMonitoring_thenNothingIsReported() throws Exception {
+        ReentrantLock lock = new ReentrantLock();
+        Thread.ofVirtual().start(() -> {
+            lock.lock();
+            try {
+                sleep(50);
+            } finally {
+                lock.unlock();
+            }
+        }).join();
+
+        Thread.sleep(2_000);
+        assertEquals(0, monitor.getPinnedCount());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}